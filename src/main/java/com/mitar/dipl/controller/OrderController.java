@@ -2,12 +2,24 @@ package com.mitar.dipl.controller;
 
 import com.mitar.dipl.model.dto.order.OrderCreateDto;
 import com.mitar.dipl.service.OrderService;
+import com.mitar.dipl.security.SecurityUtils;
+import com.mitar.dipl.service.kitchen.KitchenBoard;
+import com.mitar.dipl.service.kitchen.StationRouter;
+import com.mitar.dipl.service.order.OrderIntakeQueue;
+import com.mitar.dipl.service.order.OrderTotalsVerifier;
+import com.mitar.dipl.utils.UUIDUtils;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @RestController
@@ -15,6 +27,11 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final KitchenBoard kitchenBoard;
+    private final StationRouter stationRouter;
+    private final SecurityUtils securityUtils;
+    private final OrderTotalsVerifier orderTotalsVerifier;
+    private final OrderIntakeQueue orderIntakeQueue;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
@@ -22,6 +39,67 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.OK).body(orderService.getAllOrders());
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> searchOrders(@RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String userId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(orderService.searchOrders(status, userId, from, to, cursor, limit));
+    }
+
+    @GetMapping("/kitchen")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getKitchenBoard() {
+        return ResponseEntity.status(HttpStatus.OK).body(kitchenBoard.getOrders());
+    }
+
+    @GetMapping(value = "/kitchen/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public SseEmitter streamKitchenBoard() {
+        return kitchenBoard.subscribe();
+    }
+
+    @GetMapping("/kitchen/stations/{station}/tickets")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getStationTickets(@PathVariable String station) {
+        return ResponseEntity.status(HttpStatus.OK).body(stationRouter.getTickets(StationRouter.parseStation(station)));
+    }
+
+    @PostMapping("/kitchen/stations/{station}/claim")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> claimStationTickets(@PathVariable String station, @RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(stationRouter.claim(StationRouter.parseStation(station), count, securityUtils.getCurrentUserEmail()));
+    }
+
+    @PutMapping("/kitchen/tickets/{ticketId}/complete")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> completeTicket(@PathVariable String ticketId) {
+        return ResponseEntity.status(HttpStatus.OK).body(stationRouter.complete(UUIDUtils.parseUUID(ticketId)));
+    }
+
+    @GetMapping("/intake")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getIntakeMetrics() {
+        return ResponseEntity.status(HttpStatus.OK).body(orderIntakeQueue.getMetrics());
+    }
+
+    @PutMapping(value = "/intake", params = "enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> setIntakeMode(@RequestParam boolean enabled) {
+        orderIntakeQueue.setEnabled(enabled);
+        return ResponseEntity.status(HttpStatus.OK).body(orderIntakeQueue.getMetrics());
+    }
+
+    @PostMapping("/totals/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> verifyOrderTotals() {
+        return ResponseEntity.status(HttpStatus.OK).body(orderTotalsVerifier.verify());
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("@securityUtils.isOrderOwnerByOrderId(#orderId) or hasAnyRole('STAFF', 'ADMIN')")
     public ResponseEntity<?> getOrderById(@PathVariable String orderId) {
@@ -43,6 +121,12 @@ public class OrderController {
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER', 'STAFF', 'ADMIN')")
     public ResponseEntity<?> createOrder(@RequestBody @Validated OrderCreateDto orderCreateDto) {
+        if (orderIntakeQueue.isEnabled()) {
+            OrderIntakeQueue.Submission submission = orderIntakeQueue.submit(orderCreateDto);
+            return ResponseEntity.status(submission.stored() ? HttpStatus.CREATED : HttpStatus.ACCEPTED)
+                    .location(URI.create("/orders/" + submission.order().getId()))
+                    .body(submission.order());
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderCreateDto));
     }
 
@@ -1,6 +1,7 @@
 package com.mitar.dipl.controller;
 
 import com.mitar.dipl.model.dto.order_item.OrderItemCreateDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemsAddDto;
 import com.mitar.dipl.service.OrderItemService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -40,6 +41,12 @@ public class OrderItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(orderItemService.createOrderItem(orderItemCreateDto));
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("@securityUtils.isOrderItemOwnerByOrderId(#orderItemsAddDto.orderId)")
+    public ResponseEntity<?> addOrderItems(@RequestBody @Validated OrderItemsAddDto orderItemsAddDto) {
+        return ResponseEntity.status(HttpStatus.OK).body(orderItemService.addOrderItems(orderItemsAddDto));
+    }
+
     @DeleteMapping("/delete/{orderItemId}")
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
     public ResponseEntity<?> deleteOrderItem(@PathVariable String orderItemId) {
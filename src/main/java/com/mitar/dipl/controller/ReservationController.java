@@ -1,24 +1,48 @@
 package com.mitar.dipl.controller;
 
+import com.mitar.dipl.model.dto.reservation.ReservationAutoAssignDto;
 import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldConfirmDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationTicketDto;
+import com.mitar.dipl.security.SecurityUtils;
+import com.mitar.dipl.service.AvailabilityService;
+import com.mitar.dipl.service.ReservationArchiveService;
+import com.mitar.dipl.service.ReservationImportService;
 import com.mitar.dipl.service.ReservationService;
+import com.mitar.dipl.service.reservation.ReservationAdmissionQueue;
+import com.mitar.dipl.utils.UUIDUtils;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("/reservations")
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final AvailabilityService availabilityService;
+    private final ReservationImportService reservationImportService;
+    private final ReservationArchiveService reservationArchiveService;
+    private final ReservationAdmissionQueue reservationAdmissionQueue;
+    private final SecurityUtils securityUtils;
 
     @GetMapping("/all")
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
@@ -32,6 +56,29 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.OK).body(reservationService.getAllIncludingDeleted());
     }
 
+    @GetMapping(params = {"from", "to"})
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getReservationsInRange(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(required = false) String tableId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(reservationService.getReservationsInRange(from, to, tableId, cursor, limit));
+    }
+
+    @GetMapping(value = "/availability", params = "date")
+    public ResponseEntity<?> getAvailability(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                             @RequestParam Integer guests) {
+        return ResponseEntity.status(HttpStatus.OK).body(availabilityService.getAvailability(date, guests));
+    }
+
+    @GetMapping(value = "/availability", params = {"from", "to"})
+    public ResponseEntity<?> getAvailabilitySummary(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam Integer guests) {
+        return ResponseEntity.status(HttpStatus.OK).body(availabilityService.getAvailabilitySummary(from, to, guests));
+    }
+
     @GetMapping("/{reservationId}")
     @PreAuthorize("@securityUtils.isReservationOwnerByReservationId(#reservationId) or hasAnyRole('STAFF', 'ADMIN')")
     public ResponseEntity<?> getReservationById(@PathVariable String reservationId) {
@@ -50,6 +97,12 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.OK).body(reservationService.getReservationsByTableId(tableId));
     }
 
+    @GetMapping("/guest-search")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> searchGuests(@RequestParam @NotBlank(message = "Search query must not be empty.") String q) {
+        return ResponseEntity.status(HttpStatus.OK).body(reservationService.searchGuests(q));
+    }
+
     @GetMapping("/guest-name/{guestName}")
     public ResponseEntity<?> getReservationsByGuestName(@PathVariable
                                                             @NotEmpty (message = "Guest name must not be empty.")
@@ -72,9 +125,82 @@ public class ReservationController {
 
     @PostMapping
     public ResponseEntity<?> createReservation(@RequestBody @Validated ReservationCreateDto reservationCreateDto) {
+        if (reservationAdmissionQueue.isEnabled()) {
+            ReservationTicketDto ticket = reservationAdmissionQueue.enqueue(securityUtils.getCurrentUserEmail(), reservationCreateDto);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/reservations/tickets/" + ticket.getId()))
+                    .body(ticket);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createReservation(reservationCreateDto));
     }
 
+    @GetMapping("/archive")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getArchivedReservations(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                     @RequestParam(required = false) String tableId,
+                                                     @RequestParam(required = false) String userId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(reservationArchiveService.getArchivedReservations(from, to, tableId, userId, cursor, limit));
+    }
+
+    @PostMapping("/archive/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> archiveReservations() {
+        return ResponseEntity.status(HttpStatus.OK).body(reservationArchiveService.archiveReservations());
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> importReservations(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                InputStream body) {
+        ReservationImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ReservationImportService.Format.CSV
+                : ReservationImportService.Format.NDJSON;
+        return ResponseEntity.status(HttpStatus.OK).body(reservationImportService.importReservations(body, format));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<?> getReservationTicket(@PathVariable String ticketId) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(reservationAdmissionQueue.getTicket(UUIDUtils.parseUUID(ticketId), securityUtils.getCurrentUserEmail()));
+    }
+
+    @GetMapping("/rush")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getRushMetrics() {
+        return ResponseEntity.status(HttpStatus.OK).body(reservationAdmissionQueue.getMetrics());
+    }
+
+    @PutMapping(value = "/rush", params = "enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> setRushMode(@RequestParam boolean enabled) {
+        reservationAdmissionQueue.setEnabled(enabled);
+        return ResponseEntity.status(HttpStatus.OK).body(reservationAdmissionQueue.getMetrics());
+    }
+
+    @PostMapping("/auto-assign")
+    public ResponseEntity<?> autoAssignReservation(@RequestBody @Validated ReservationAutoAssignDto reservationAutoAssignDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.autoAssignReservation(reservationAutoAssignDto));
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<?> placeHold(@RequestBody @Validated ReservationHoldCreateDto reservationHoldCreateDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.placeHold(reservationHoldCreateDto));
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId, @RequestBody @Validated ReservationHoldConfirmDto reservationHoldConfirmDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.confirmHold(holdId, reservationHoldConfirmDto));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).body(reservationService.releaseHold(holdId));
+    }
+
     @DeleteMapping("/delete/{reservationId}")
     @PreAuthorize("@securityUtils.isReservationOwnerByReservationId(#reservationId) or hasAnyRole('STAFF', 'ADMIN')")
     public ResponseEntity<?> deleteReservation(@PathVariable String reservationId) {
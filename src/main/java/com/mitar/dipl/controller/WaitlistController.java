@@ -0,0 +1,48 @@
+package com.mitar.dipl.controller;
+
+import com.mitar.dipl.model.dto.waitlist.WaitlistCreateDto;
+import com.mitar.dipl.service.WaitlistService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @GetMapping("/all")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getAllEntries() {
+        return ResponseEntity.status(HttpStatus.OK).body(waitlistService.getAllEntries());
+    }
+
+    @GetMapping("/{entryId}")
+    @PreAuthorize("@securityUtils.isWaitlistEntryOwnerByEntryId(#entryId) or hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getEntryById(@PathVariable String entryId) {
+        return ResponseEntity.status(HttpStatus.OK).body(waitlistService.getEntryById(entryId));
+    }
+
+    @GetMapping("/user/{userId}")
+    @PreAuthorize("@securityUtils.isUserByUserId(#userId) or hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getEntriesByUserId(@PathVariable String userId) {
+        return ResponseEntity.status(HttpStatus.OK).body(waitlistService.getEntriesByUserId(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createEntry(@RequestBody @Validated WaitlistCreateDto waitlistCreateDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.createEntry(waitlistCreateDto));
+    }
+
+    @DeleteMapping("/delete/{entryId}")
+    @PreAuthorize("@securityUtils.isWaitlistEntryOwnerByEntryId(#entryId) or hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> cancelEntry(@PathVariable String entryId) {
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).body(waitlistService.cancelEntry(entryId));
+    }
+
+}
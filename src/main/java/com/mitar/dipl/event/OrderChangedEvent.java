@@ -0,0 +1,20 @@
+package com.mitar.dipl.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published by the order and order item services whenever an order, its status or its items change.
+ * Listeners that need the new state read it after commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrderChangedEvent {
+
+    private final UUID orderId;
+
+}
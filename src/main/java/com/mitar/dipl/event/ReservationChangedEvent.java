@@ -0,0 +1,34 @@
+package com.mitar.dipl.event;
+
+import com.mitar.dipl.model.dto.reservation.ReservationGuest;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the reservation service whenever a reservation is created, updated or soft-deleted.
+ * {@code previous} is null for a creation; {@code current} and {@code guest} are null for a deletion.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReservationChangedEvent {
+
+    private final ReservationSlot previous;
+    private final ReservationSlot current;
+    private final ReservationGuest guest;
+
+    public static ReservationChangedEvent created(ReservationSlot current, ReservationGuest guest) {
+        return new ReservationChangedEvent(null, current, guest);
+    }
+
+    public static ReservationChangedEvent updated(ReservationSlot previous, ReservationSlot current, ReservationGuest guest) {
+        return new ReservationChangedEvent(previous, current, guest);
+    }
+
+    public static ReservationChangedEvent deleted(ReservationSlot previous) {
+        return new ReservationChangedEvent(previous, null, null);
+    }
+
+}
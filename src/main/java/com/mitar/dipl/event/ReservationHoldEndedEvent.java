@@ -0,0 +1,26 @@
+package com.mitar.dipl.event;
+
+import com.mitar.dipl.service.reservation.ReservationHoldRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@link ReservationHoldRegistry} when a hold stops blocking its slot, either because it became a
+ * reservation, was released by the client or ran out.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReservationHoldEndedEvent {
+
+    public enum Outcome {
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final ReservationHoldRegistry.Hold hold;
+    private final Outcome outcome;
+
+}
@@ -1,6 +1,8 @@
 package com.mitar.dipl.exception;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mitar.dipl.model.dto.availability.ReservationAlternativeDto;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
 
@@ -19,6 +21,9 @@ public class ApiError {
 
     private List<String> errors;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ReservationAlternativeDto> alternatives;
+
     public ApiError() {
         timestamp = LocalDateTime.now();
     }
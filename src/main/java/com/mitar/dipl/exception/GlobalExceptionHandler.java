@@ -3,7 +3,9 @@ package com.mitar.dipl.exception;
 import com.mitar.dipl.exception.custom.BadRequestException;
 import com.mitar.dipl.exception.custom.ConflictException;
 import com.mitar.dipl.exception.custom.InvalidUUIDException;
+import com.mitar.dipl.exception.custom.ReservationConflictException;
 import com.mitar.dipl.exception.custom.ResourceNotFoundException;
+import com.mitar.dipl.exception.custom.TooManyRequestsException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +13,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -166,6 +169,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, error.getStatus());
     }
 
+    // Handle ObjectOptimisticLockingFailureException
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        logger.warn("ObjectOptimisticLockingFailureException: {}", ex.getMessage());
+        String message = "The resource was modified by someone else. Reload it and try again.";
+        ApiError error = new ApiError(HttpStatus.CONFLICT, message, List.of(message));
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
+    // Handle ReservationConflictException
+    @ExceptionHandler(ReservationConflictException.class)
+    public ResponseEntity<ApiError> handleReservationConflict(ReservationConflictException ex) {
+        ApiError error = new ApiError(HttpStatus.CONFLICT, ex.getMessage(), List.of(ex.getMessage()));
+        error.setAlternatives(ex.getAlternatives());
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
+    // Handle TooManyRequestsException
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiError> handleTooManyRequests(TooManyRequestsException ex) {
+        ApiError error = new ApiError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), List.of(ex.getMessage()));
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
     // Handle generic exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleAllExceptions(Exception ex, WebRequest request) {
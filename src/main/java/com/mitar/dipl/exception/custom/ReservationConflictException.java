@@ -0,0 +1,17 @@
+package com.mitar.dipl.exception.custom;
+
+import com.mitar.dipl.model.dto.availability.ReservationAlternativeDto;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ReservationConflictException extends ConflictException {
+
+    private final List<ReservationAlternativeDto> alternatives;
+
+    public ReservationConflictException(String message, List<ReservationAlternativeDto> alternatives) {
+        super(message);
+        this.alternatives = alternatives;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mitar.dipl.mapper;
+
+import com.mitar.dipl.model.dto.reservation.ArchivedReservationDto;
+import com.mitar.dipl.model.entity.ArchivedReservation;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class ArchivedReservationMapper {
+
+    public ArchivedReservationDto toDto(ArchivedReservation archivedReservation) {
+        ArchivedReservationDto dto = new ArchivedReservationDto();
+
+        dto.setId(archivedReservation.getId().toString());
+        dto.setReservationTime(archivedReservation.getReservationTime());
+        dto.setNumberOfGuests(archivedReservation.getNumberOfGuests());
+        dto.setUserId(archivedReservation.getUserId() != null ? archivedReservation.getUserId().toString() : null);
+        dto.setTableId(archivedReservation.getTableId().toString());
+        dto.setGroupId(archivedReservation.getGroupId() != null ? archivedReservation.getGroupId().toString() : null);
+        dto.setGuestName(archivedReservation.getGuestName());
+        dto.setGuestEmail(archivedReservation.getGuestEmail());
+        dto.setGuestPhone(archivedReservation.getGuestPhone());
+        dto.setDeleted(archivedReservation.getDeleted());
+        dto.setArchivedAt(archivedReservation.getArchivedAt());
+
+        return dto;
+    }
+
+}
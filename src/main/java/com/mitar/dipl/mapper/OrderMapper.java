@@ -28,6 +28,9 @@ public class OrderMapper {
         orderDto.setId(orderEntity.getId().toString());
         orderDto.setCreatedAt(orderEntity.getCreatedAt());
         orderDto.setStatus(orderEntity.getStatus().name());
+        orderDto.setVersion(orderEntity.getVersion());
+        orderDto.setSubtotal(orderEntity.getSubtotal());
+        orderDto.setItemCount(orderEntity.getItemCount());
         orderDto.setOrderItems(orderEntity.getOrderItems().stream()
                 .map(orderItemMapper::toDto)
                 .collect(Collectors.toSet()));
@@ -25,6 +25,7 @@ public class ReservationMapper {
         dto.setNumberOfGuests(reservation.getNumberOfGuests());
         dto.setUserId(reservation.getUser() != null ? reservation.getUser().getId().toString() : null);
         dto.setTableId(reservation.getTable().getId().toString());
+        dto.setGroupId(reservation.getGroupId() != null ? reservation.getGroupId().toString() : null);
         dto.setGuestName(reservation.getGuestName() != null ? reservation.getGuestName() : null);
         dto.setGuestEmail(reservation.getGuestEmail() != null ? reservation.getGuestEmail() : null);
         dto.setGuestPhone(reservation.getGuestPhone() != null ? reservation.getGuestPhone() : null);
@@ -0,0 +1,44 @@
+package com.mitar.dipl.mapper;
+
+import com.mitar.dipl.model.dto.waitlist.WaitlistCreateDto;
+import com.mitar.dipl.model.dto.waitlist.WaitlistDto;
+import com.mitar.dipl.model.entity.WaitlistEntry;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class WaitlistMapper {
+
+    public WaitlistDto toDto(WaitlistEntry entry) {
+        WaitlistDto dto = new WaitlistDto();
+
+        dto.setId(entry.getId().toString());
+        dto.setRequestedTime(entry.getRequestedTime());
+        dto.setNumberOfGuests(entry.getNumberOfGuests());
+        dto.setUserId(entry.getUser() != null ? entry.getUser().getId().toString() : null);
+        dto.setGuestName(entry.getGuestName());
+        dto.setGuestEmail(entry.getGuestEmail());
+        dto.setGuestPhone(entry.getGuestPhone());
+        dto.setStatus(entry.getStatus());
+        dto.setHoldId(entry.getHoldId() != null ? entry.getHoldId().toString() : null);
+        dto.setOfferedTableId(entry.getOfferedTableId() != null ? entry.getOfferedTableId().toString() : null);
+        dto.setOfferedAt(entry.getOfferedAt());
+        dto.setCreatedAt(entry.getCreatedAt());
+
+        return dto;
+    }
+
+    public WaitlistEntry toEntity(WaitlistCreateDto waitlistCreateDto) {
+        WaitlistEntry entry = new WaitlistEntry();
+
+        entry.setRequestedTime(waitlistCreateDto.getRequestedTime());
+        entry.setNumberOfGuests(waitlistCreateDto.getNumberOfGuests());
+        entry.setGuestName(waitlistCreateDto.getGuestName());
+        entry.setGuestEmail(waitlistCreateDto.getGuestEmail());
+        entry.setGuestPhone(waitlistCreateDto.getGuestPhone());
+
+        return entry;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mitar.dipl.model.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Table-by-hour occupancy over a range of days. {@code hours} labels the columns of every
+ * {@code occupancyByHour} array; values are percentages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyHeatmapDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private int[] hours;
+    private int[] occupancyByHour;
+    private List<TableOccupancyDto> tables;
+
+}
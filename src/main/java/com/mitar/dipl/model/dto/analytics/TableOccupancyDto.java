@@ -0,0 +1,20 @@
+package com.mitar.dipl.model.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Occupancy of one table, in percent of the time the restaurant was open.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableOccupancyDto {
+
+    private String tableId;
+    private Integer tableNumber;
+    private int occupancy;
+    private int[] occupancyByHour;
+
+}
@@ -0,0 +1,16 @@
+package com.mitar.dipl.model.dto.availability;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class DayAvailabilityDto {
+
+    private LocalDate date;
+    private Integer numberOfGuests;
+    private Integer maxCoversPerSlot;
+    private List<TableAvailabilityDto> tables;
+
+}
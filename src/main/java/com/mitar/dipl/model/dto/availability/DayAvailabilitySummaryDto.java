@@ -0,0 +1,18 @@
+package com.mitar.dipl.model.dto.availability;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class DayAvailabilitySummaryDto {
+
+    private LocalDate date;
+    private Integer availableTables;
+    private Integer availableStartSlots;
+    private Integer maxCoversPerSlot;
+    private LocalTime firstAvailableTime;
+    private LocalTime lastAvailableTime;
+
+}
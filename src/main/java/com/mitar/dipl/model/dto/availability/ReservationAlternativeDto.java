@@ -0,0 +1,15 @@
+package com.mitar.dipl.model.dto.availability;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReservationAlternativeDto {
+
+    private String tableId;
+    private Integer tableNumber;
+    private Integer capacity;
+    private LocalDateTime reservationTime;
+
+}
@@ -0,0 +1,16 @@
+package com.mitar.dipl.model.dto.availability;
+
+import lombok.Data;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+public class TableAvailabilityDto {
+
+    private String tableId;
+    private Integer tableNumber;
+    private Integer capacity;
+    private List<LocalTime> freeStartTimes;
+
+}
@@ -0,0 +1,23 @@
+package com.mitar.dipl.model.dto.kitchen;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What a kitchen screen shows for an open order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenOrderDto {
+
+    private String id;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<KitchenOrderItemDto> items;
+
+}
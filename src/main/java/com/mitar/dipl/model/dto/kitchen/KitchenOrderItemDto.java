@@ -0,0 +1,16 @@
+package com.mitar.dipl.model.dto.kitchen;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenOrderItemDto {
+
+    private String menuItemId;
+    private String menuItemName;
+    private Integer quantity;
+
+}
@@ -0,0 +1,31 @@
+package com.mitar.dipl.model.dto.kitchen;
+
+import com.mitar.dipl.model.entity.enums.Station;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order item as a unit of work for a station. The ticket ID is the order item ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenTicketDto {
+
+    private String id;
+    private String orderId;
+    private Station station;
+    private String menuItemId;
+    private String menuItemName;
+    private String category;
+    private Integer course;
+    private Integer quantity;
+    private LocalDateTime orderCreatedAt;
+    private KitchenTicketStatus status;
+    private String claimedBy;
+    private LocalDateTime claimedAt;
+
+}
@@ -0,0 +1,7 @@
+package com.mitar.dipl.model.dto.kitchen;
+
+public enum KitchenTicketStatus {
+    QUEUED,
+    CLAIMED,
+    COMPLETED
+}
@@ -10,9 +10,14 @@ public class OrderCreateDto {
 
     @NotNull(message = "Status cannot be null")
     @NotEmpty(message = "Status cannot be empty")
-    @Pattern(regexp = "PENDING|COMPLETED|CANCELLED", message = "Status must be either PENDING, COMPLETED, or CANCELLED")
+    @Pattern(regexp = "PENDING|IN_PROGRESS|COMPLETED|CANCELLED", message = "Status must be either PENDING, IN_PROGRESS, COMPLETED, or CANCELLED")
     private String status;
 
+    /**
+     * Version of the order the client edited; an update is rejected if the order has changed since. Optional.
+     */
+    private Long version;
+
     @NotNull(message = "User ID cannot be null")
     @NotEmpty(message = "User ID cannot be empty")
     private String userId;
@@ -3,6 +3,7 @@ package com.mitar.dipl.model.dto.order;
 import com.mitar.dipl.model.dto.order_item.OrderItemDto;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Set;
 
@@ -12,6 +13,9 @@ public class OrderDto {
     private String id;
     private LocalDateTime createdAt;
     private String status;
+    private Long version;
+    private BigDecimal subtotal;
+    private Integer itemCount;
     private String userId;
     private Set<OrderItemDto> orderItems;
     private String billId;
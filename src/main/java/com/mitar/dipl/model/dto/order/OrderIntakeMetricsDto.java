@@ -0,0 +1,20 @@
+package com.mitar.dipl.model.dto.order;
+
+import lombok.Data;
+
+@Data
+public class OrderIntakeMetricsDto {
+
+    private Boolean enabled;
+    private String durability;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long accepted;
+    private Long turnedAway;
+    private Long written;
+    private Long failed;
+    private Long groupCommits;
+    private Long averageGroupSize;
+    private Long averageCommitMillis;
+
+}
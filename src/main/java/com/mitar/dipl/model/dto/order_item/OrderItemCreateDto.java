@@ -5,15 +5,9 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 public class OrderItemCreateDto {
 
-    @NotNull(message = "Price cannot be null")
-    @Min(value = 0, message = "Price must be greater than or equal to zero")
-    private BigDecimal price;
-
     @NotNull(message = "Quantity cannot be null")
     @Min(value = 1, message = "Quantity must be greater than zero")
     private Integer quantity;
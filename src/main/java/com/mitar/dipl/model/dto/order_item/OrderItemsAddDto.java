@@ -0,0 +1,22 @@
+package com.mitar.dipl.model.dto.order_item;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.HashMap;
+
+@Data
+public class OrderItemsAddDto {
+
+    @NotNull(message = "Order ID cannot be null")
+    @NotEmpty(message = "Order ID cannot be empty")
+    private String orderId;
+
+    @NotNull(message = "Items cannot be null")
+    @Size(min = 1, max = 200, message = "Between 1 and 200 items can be added at once")
+    private HashMap<String, @NotNull @Min(value = 1, message = "Quantity must be at least 1 for every given item") Integer> menuItemIdsAndQuantities; // {"id1": 2, "id2": 1}
+
+}
@@ -0,0 +1,22 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ArchivedReservationDto {
+
+    private String id;
+    private LocalDateTime reservationTime;
+    private Integer numberOfGuests;
+    private String userId;
+    private String tableId;
+    private String groupId;
+    private String guestName;
+    private String guestEmail;
+    private String guestPhone;
+    private Boolean deleted;
+    private LocalDateTime archivedAt;
+
+}
@@ -0,0 +1,16 @@
+package com.mitar.dipl.model.dto.reservation;
+
+/**
+ * Who a reservation is for: either a registered user or a guest identified by name, email and phone.
+ */
+public interface GuestDetails {
+
+    String getUserId();
+
+    String getGuestName();
+
+    String getGuestEmail();
+
+    String getGuestPhone();
+
+}
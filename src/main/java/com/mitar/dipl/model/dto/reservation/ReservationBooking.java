@@ -0,0 +1,22 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Who a reservation was made for and when: the user, or the guest email for reservations without an account.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBooking {
+
+    private UUID userId;
+    private String guestEmail;
+    private LocalDateTime reservationTime;
+
+}
@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 @Data
 @ValidReservation
-public class ReservationCreateDto {
+public class ReservationCreateDto implements GuestDetails {
 
     @NotNull(message = "Table ID is required.")
     @NotEmpty(message = "Table ID cannot be empty.")
@@ -12,6 +12,7 @@ public class ReservationDto {
     private Integer numberOfGuests;
     private String userId;
     private String tableId;
+    private String groupId;
     private String guestName;
     private String guestEmail;
     private String guestPhone;
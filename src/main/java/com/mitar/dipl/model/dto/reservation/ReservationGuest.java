@@ -0,0 +1,24 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Guest contact details of a reservation, as kept by the in-memory guest search index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationGuest {
+
+    private UUID id;
+    private LocalDateTime reservationTime;
+    private String guestName;
+    private String guestEmail;
+    private String guestPhone;
+
+}
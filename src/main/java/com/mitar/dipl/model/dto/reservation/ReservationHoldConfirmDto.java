@@ -0,0 +1,20 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+@ValidReservation
+public class ReservationHoldConfirmDto implements GuestDetails {
+
+    private String userId;
+
+    private String guestName;
+
+    @Email(message = "Invalid guest email format.")
+    private String guestEmail;
+
+    @Pattern(regexp = "^\\+?[0-9]{7,15}$", message = "Invalid guest phone number format.")
+    private String guestPhone;
+}
@@ -0,0 +1,17 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Data
+public class ReservationHoldDto {
+
+    private String id;
+    private String tableId;
+    private LocalDateTime reservationTime;
+    private Integer numberOfGuests;
+    private Instant expiresAt;
+
+}
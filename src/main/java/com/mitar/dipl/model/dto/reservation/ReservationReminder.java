@@ -0,0 +1,28 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What a reservation reminder needs to reach the guest: the booking and the contact of the user or walk-in guest.
+ * Loaded through a constructor expression when a batch of reminders fires.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationReminder {
+
+    private UUID reservationId;
+    private LocalDateTime reservationTime;
+    private Integer numberOfGuests;
+    private Integer tableNumber;
+    private String userEmail;
+    private String guestName;
+    private String guestEmail;
+    private String guestPhone;
+
+}
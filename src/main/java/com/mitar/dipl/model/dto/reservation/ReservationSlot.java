@@ -0,0 +1,24 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lightweight view of a reservation holding only the columns needed for scheduling decisions.
+ * Loaded through constructor expressions so no entities are materialized.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSlot {
+
+    private UUID id;
+    private UUID tableId;
+    private LocalDateTime reservationTime;
+    private Integer numberOfGuests;
+
+}
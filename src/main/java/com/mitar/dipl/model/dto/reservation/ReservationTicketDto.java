@@ -0,0 +1,17 @@
+package com.mitar.dipl.model.dto.reservation;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ReservationTicketDto {
+
+    private String id;
+    private ReservationTicketStatus status;
+    private Instant enqueuedAt;
+    private Instant completedAt;
+    private ReservationDto reservation;
+    private String error;
+
+}
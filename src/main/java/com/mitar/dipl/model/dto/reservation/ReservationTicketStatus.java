@@ -0,0 +1,8 @@
+package com.mitar.dipl.model.dto.reservation;
+
+public enum ReservationTicketStatus {
+    QUEUED,
+    PROCESSING,
+    CONFIRMED,
+    REJECTED
+}
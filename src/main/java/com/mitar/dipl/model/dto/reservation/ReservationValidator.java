@@ -3,10 +3,10 @@ package com.mitar.dipl.model.dto.reservation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-public class ReservationValidator implements ConstraintValidator<ValidReservation, ReservationCreateDto> {
+public class ReservationValidator implements ConstraintValidator<ValidReservation, GuestDetails> {
 
     @Override
-    public boolean isValid(ReservationCreateDto dto, ConstraintValidatorContext context) {
+    public boolean isValid(GuestDetails dto, ConstraintValidatorContext context) {
         boolean isValid = true;
 
         if (dto.getUserId() == null || dto.getUserId().isEmpty()) {
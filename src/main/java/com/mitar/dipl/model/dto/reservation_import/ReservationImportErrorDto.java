@@ -0,0 +1,15 @@
+package com.mitar.dipl.model.dto.reservation_import;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationImportErrorDto {
+
+    private Long row;
+    private String message;
+
+}
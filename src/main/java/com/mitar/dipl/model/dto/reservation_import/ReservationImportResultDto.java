@@ -0,0 +1,17 @@
+package com.mitar.dipl.model.dto.reservation_import;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ReservationImportResultDto {
+
+    private Long totalRows = 0L;
+    private Long imported = 0L;
+    private Long failed = 0L;
+    private Boolean errorsTruncated = false;
+    private List<ReservationImportErrorDto> errors = new ArrayList<>();
+
+}
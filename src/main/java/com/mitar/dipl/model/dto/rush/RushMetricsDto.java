@@ -0,0 +1,18 @@
+package com.mitar.dipl.model.dto.rush;
+
+import lombok.Data;
+
+@Data
+public class RushMetricsDto {
+
+    private Boolean enabled;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long enqueued;
+    private Long turnedAway;
+    private Long confirmed;
+    private Long rejected;
+    private Long averageWaitMillis;
+    private Long maxWaitMillis;
+
+}
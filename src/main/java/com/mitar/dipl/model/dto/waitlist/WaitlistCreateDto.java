@@ -0,0 +1,31 @@
+package com.mitar.dipl.model.dto.waitlist;
+
+import com.mitar.dipl.model.dto.reservation.GuestDetails;
+import com.mitar.dipl.model.dto.reservation.ValidReservation;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@ValidReservation
+public class WaitlistCreateDto implements GuestDetails {
+
+    @NotNull(message = "Requested time is required.")
+    @Future(message = "Requested time must be in the future.")
+    private LocalDateTime requestedTime;
+
+    @NotNull(message = "Number of guests is required.")
+    @Min(value = 1, message = "There must be at least one guest.")
+    private Integer numberOfGuests;
+
+    private String userId;
+
+    private String guestName;
+
+    @Email(message = "Invalid guest email format.")
+    private String guestEmail;
+
+    @Pattern(regexp = "^\\+?[0-9]{7,15}$", message = "Invalid guest phone number format.")
+    private String guestPhone;
+}
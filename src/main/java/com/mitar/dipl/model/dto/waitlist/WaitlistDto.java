@@ -0,0 +1,24 @@
+package com.mitar.dipl.model.dto.waitlist;
+
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class WaitlistDto {
+
+    private String id;
+    private LocalDateTime requestedTime;
+    private Integer numberOfGuests;
+    private String userId;
+    private String guestName;
+    private String guestEmail;
+    private String guestPhone;
+    private WaitlistStatus status;
+    private String holdId;
+    private String offeredTableId;
+    private LocalDateTime offeredAt;
+    private LocalDateTime createdAt;
+
+}
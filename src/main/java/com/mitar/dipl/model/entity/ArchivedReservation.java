@@ -0,0 +1,61 @@
+package com.mitar.dipl.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Past or cancelled reservation moved out of the {@code reservations} table by the archival job. Rows are
+ * written by the job only and keep the original reservation ID; user and table are plain IDs so archived rows
+ * outlive the entities they referred to.
+ */
+@Entity
+@Table(name = "reservations_archive", indexes = {
+        @Index(name = "idx_reservations_archive_time", columnList = "reservation_time, id"),
+        @Index(name = "idx_reservations_archive_user", columnList = "user_id"),
+        @Index(name = "idx_reservations_archive_table", columnList = "table_id")
+})
+@Getter
+@Setter
+@ToString
+public class ArchivedReservation {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "reservation_time", nullable = false)
+    private LocalDateTime reservationTime;
+
+    @Column(name = "number_of_guests", nullable = false)
+    private int numberOfGuests;
+
+    @Column(name = "user_id", columnDefinition = "BINARY(16)")
+    private UUID userId;
+
+    @Column(name = "table_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID tableId;
+
+    @Column(name = "group_id", columnDefinition = "BINARY(16)")
+    private UUID groupId;
+
+    @Column(name = "guest_name")
+    private String guestName;
+
+    @Column(name = "guest_email")
+    private String guestEmail;
+
+    @Column(name = "guest_phone")
+    private String guestPhone;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+}
@@ -11,17 +11,22 @@ import lombok.EqualsAndHashCode;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_created", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @ToString(exclude = {"user", "orderItems", "bill"})
-@EqualsAndHashCode(exclude = {"user", "orderItems", "bill"})
+@EqualsAndHashCode(exclude = {"user", "orderItems", "bill", "version", "subtotal", "itemCount"})
 public class OrderEntity {
 
     @Id
@@ -38,6 +43,23 @@ public class OrderEntity {
     @Column(nullable = false)
     private Status status;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * Sum of the line prices of the order's items, kept up to date on every item change so billing does not have to
+     * load the items.
+     */
+    @Column(nullable = false, columnDefinition = "decimal(38,2) default 0")
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    /**
+     * Sum of the quantities of the order's items, maintained together with {@link #subtotal}.
+     */
+    @Column(name = "item_count", nullable = false, columnDefinition = "int default 0")
+    private Integer itemCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -47,18 +69,37 @@ public class OrderEntity {
     @JsonManagedReference
     private Set<OrderItem> orderItems = new HashSet<>();
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "bill_id", referencedColumnName = "id")
     private Bill bill;
 
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrderEntity(this);
+        adjustTotals(orderItem.getPrice(), orderItem.getQuantity());
     }
 
     public void removeOrderItem(OrderItem orderItem) {
         orderItems.remove(orderItem);
         orderItem.setOrderEntity(null);
+        adjustTotals(orderItem.getPrice().negate(), -orderItem.getQuantity());
+    }
+
+    /**
+     * Changes the quantity and line price of one of this order's items and moves the totals by the difference.
+     */
+    public void changeOrderItem(OrderItem orderItem, int quantity, BigDecimal price) {
+        adjustTotals(price.subtract(orderItem.getPrice()), quantity - orderItem.getQuantity());
+        orderItem.setQuantity(quantity);
+        orderItem.setPrice(price);
+    }
+
+    /**
+     * Moves the totals for an item change made without going through the item collection, which would load it.
+     */
+    public void adjustTotals(BigDecimal priceDelta, int quantityDelta) {
+        subtotal = subtotal.add(priceDelta);
+        itemCount += quantityDelta;
     }
 
     public void setBill(Bill bill) {
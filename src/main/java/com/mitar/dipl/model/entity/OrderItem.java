@@ -2,15 +2,21 @@ package com.mitar.dipl.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "order_items")
-@Data
+@Table(name = "order_items", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_items_order_menu_item", columnNames = {"order_id", "menu_item_id"})
+})
+@Getter
+@Setter
+@ToString(exclude = "orderEntity")
 public class OrderItem {
 
     @Id
@@ -25,6 +31,10 @@ public class OrderItem {
     @Column(nullable = false)
     private BigDecimal price;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     @JsonBackReference
@@ -34,4 +44,21 @@ public class OrderItem {
     @JoinColumn(name = "menu_item_id", nullable = false)
     private MenuItem menuItem;
 
+    /**
+     * Items are equal by ID only and hash to a constant, so an item keeps its place in the order's item set while its
+     * quantity and price change and when it gets its ID on insert.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof OrderItem item && id != null && id.equals(item.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return OrderItem.class.hashCode();
+    }
+
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.mitar.dipl.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.mitar.dipl.utils.GuestNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.annotations.Where;
@@ -12,7 +12,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_deleted_time_table", columnList = "deleted, reservation_time, table_id"),
+        @Index(name = "idx_reservations_group_id", columnList = "group_id"),
+        @Index(name = "idx_reservations_guest_name_normalized", columnList = "guest_name_normalized"),
+        @Index(name = "idx_reservations_guest_email_normalized", columnList = "guest_email_normalized"),
+        @Index(name = "idx_reservations_guest_phone_normalized", columnList = "guest_phone_normalized")
+})
 @Getter
 @Setter
 @SQLDelete(sql = "UPDATE reservations SET deleted = true WHERE id = ?")
@@ -27,8 +33,7 @@ public class Reservation {
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
     private UUID id;
 
-    @CreationTimestamp
-    @Column(name = "reservation_time", updatable = false, nullable = false)
+    @Column(name = "reservation_time", nullable = false)
     private LocalDateTime reservationTime;
 
     @Column(nullable = false)
@@ -44,6 +49,9 @@ public class Reservation {
     @JsonBackReference
     private TableEntity table;
 
+    @Column(name = "group_id", columnDefinition = "BINARY(16)")
+    private UUID groupId;
+
     @Column(name = "guest_name")
     private String guestName;
 
@@ -53,7 +61,27 @@ public class Reservation {
     @Column(name = "guest_phone")
     private String guestPhone;
 
+    @Column(name = "guest_name_normalized")
+    private String guestNameNormalized;
+
+    @Column(name = "guest_email_normalized")
+    private String guestEmailNormalized;
+
+    @Column(name = "guest_phone_normalized", length = 20)
+    private String guestPhoneNormalized;
+
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @Column(nullable = false)
     private Boolean deleted = false;
 
+    @PrePersist
+    @PreUpdate
+    public void normalizeGuestFields() {
+        this.guestNameNormalized = GuestNormalizer.foldName(guestName);
+        this.guestEmailNormalized = GuestNormalizer.normalizeEmail(guestEmail);
+        this.guestPhoneNormalized = GuestNormalizer.normalizePhone(guestPhone);
+    }
+
 }
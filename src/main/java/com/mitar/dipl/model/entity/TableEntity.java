@@ -3,6 +3,7 @@ package com.mitar.dipl.model.entity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.UuidGenerator;
 
 
@@ -37,14 +38,25 @@ public class TableEntity {
     @JsonManagedReference
     private Set<Reservation> reservations = new HashSet<>();
 
+    /**
+     * Links a reservation to this table. The reservation owns the association, so the collection is only
+     * kept in sync when it is already loaded; an uninitialized collection is never fetched just to add to it.
+     */
     public void addReservation(Reservation reservation) {
-        reservations.add(reservation);
+        if (Hibernate.isInitialized(reservations)) {
+            reservations.add(reservation);
+        }
         reservation.setTable(this);
     }
 
+    /**
+     * Unlinks a reservation from the loaded collection, if any. The reservation keeps its table reference
+     * because {@code table_id} is mandatory; callers move it by setting the new table instead.
+     */
     public void removeReservation(Reservation reservation) {
-        reservations.remove(reservation);
-        reservation.setTable(null);
+        if (Hibernate.isInitialized(reservations)) {
+            reservations.remove(reservation);
+        }
     }
 
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.mitar.dipl.model.entity.enums.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.UuidGenerator;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -77,13 +78,21 @@ public class User implements UserDetails {
         return active;
     }
 
+    /**
+     * Links a reservation to this user. Like {@link TableEntity#addReservation(Reservation)}, the collection is
+     * only updated when it is already loaded.
+     */
     public void addReservation(Reservation reservation) {
-        reservations.add(reservation);
+        if (Hibernate.isInitialized(reservations)) {
+            reservations.add(reservation);
+        }
         reservation.setUser(this);
     }
 
     public void removeReservation(Reservation reservation) {
-        reservations.remove(reservation);
+        if (Hibernate.isInitialized(reservations)) {
+            reservations.remove(reservation);
+        }
         reservation.setUser(null);
     }
 
@@ -0,0 +1,64 @@
+package com.mitar.dipl.model.entity;
+
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_status_time", columnList = "status, requested_time"),
+        @Index(name = "idx_waitlist_hold_id", columnList = "hold_id")
+})
+@Getter
+@Setter
+@ToString(exclude = "user")
+@EqualsAndHashCode(exclude = "user")
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "requested_time", nullable = false)
+    private LocalDateTime requestedTime;
+
+    @Column(nullable = false)
+    private int numberOfGuests;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(name = "guest_name")
+    private String guestName;
+
+    @Column(name = "guest_email")
+    private String guestEmail;
+
+    @Column(name = "guest_phone")
+    private String guestPhone;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "hold_id", columnDefinition = "BINARY(16)")
+    private UUID holdId;
+
+    @Column(name = "offered_table_id", columnDefinition = "BINARY(16)")
+    private UUID offeredTableId;
+
+    private LocalDateTime offeredAt;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,8 @@
+package com.mitar.dipl.model.entity.enums;
+
+public enum Station {
+
+    KITCHEN,
+    BAR;
+
+}
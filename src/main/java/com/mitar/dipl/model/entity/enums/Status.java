@@ -1,5 +1,8 @@
 package com.mitar.dipl.model.entity.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
 
     PENDING,
@@ -7,4 +10,24 @@ public enum Status {
     CANCELLED,
     IN_PROGRESS;
 
+    private Set<Status> next;
+
+    static {
+        PENDING.next = EnumSet.of(IN_PROGRESS, COMPLETED, CANCELLED);
+        IN_PROGRESS.next = EnumSet.of(COMPLETED, CANCELLED);
+        COMPLETED.next = EnumSet.noneOf(Status.class);
+        CANCELLED.next = EnumSet.noneOf(Status.class);
+    }
+
+    /**
+     * Checks a move against the order lifecycle: PENDING may go to IN_PROGRESS, COMPLETED or CANCELLED,
+     * IN_PROGRESS to COMPLETED or CANCELLED, and COMPLETED and CANCELLED are final. Staying put is always allowed.
+     *
+     * @param target The status to move to.
+     * @return True if the move is allowed, otherwise false.
+     */
+    public boolean canTransitionTo(Status target) {
+        return this == target || next.contains(target);
+    }
+
 }
@@ -0,0 +1,11 @@
+package com.mitar.dipl.model.entity.enums;
+
+public enum WaitlistStatus {
+
+    WAITING,
+    OFFERED,
+    BOOKED,
+    EXPIRED,
+    CANCELLED;
+
+}
@@ -0,0 +1,41 @@
+package com.mitar.dipl.repository;
+
+import com.mitar.dipl.model.entity.ArchivedReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, UUID> {
+
+    @Query("SELECT a FROM ArchivedReservation a " +
+            "WHERE a.reservationTime >= :from AND a.reservationTime < :to " +
+            "AND (:tableId IS NULL OR a.tableId = :tableId) " +
+            "AND (:userId IS NULL OR a.userId = :userId) " +
+            "ORDER BY a.reservationTime, a.id")
+    List<ArchivedReservation> findPageInRange(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("tableId") UUID tableId,
+                                              @Param("userId") UUID userId,
+                                              Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedReservation a " +
+            "WHERE a.reservationTime >= :from AND a.reservationTime < :to " +
+            "AND (:tableId IS NULL OR a.tableId = :tableId) " +
+            "AND (:userId IS NULL OR a.userId = :userId) " +
+            "AND (a.reservationTime > :afterTime OR (a.reservationTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.reservationTime, a.id")
+    List<ArchivedReservation> findPageInRangeAfter(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("tableId") UUID tableId,
+                                                   @Param("userId") UUID userId,
+                                                   @Param("afterTime") LocalDateTime afterTime,
+                                                   @Param("afterId") UUID afterId,
+                                                   Pageable pageable);
+}
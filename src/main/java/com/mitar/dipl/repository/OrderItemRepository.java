@@ -3,10 +3,12 @@ package com.mitar.dipl.repository;
 import com.mitar.dipl.model.entity.MenuItem;
 import com.mitar.dipl.model.entity.OrderEntity;
 import com.mitar.dipl.model.entity.OrderItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,6 +19,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
 
     Optional<OrderItem> findByOrderEntityAndMenuItem(OrderEntity order, MenuItem menuItem);
 
+    @EntityGraph(attributePaths = {"orderEntity", "menuItem"})
+    List<OrderItem> findAllByOrderEntity_IdAndMenuItem_IdIn(UUID orderId, Collection<UUID> menuItemIds);
+
     boolean existsByMenuItem(MenuItem menuItem);
 
 }
@@ -3,9 +3,18 @@ package com.mitar.dipl.repository;
 import com.mitar.dipl.model.entity.OrderEntity;
 import com.mitar.dipl.model.entity.User;
 import com.mitar.dipl.model.entity.enums.Status;
+import com.mitar.dipl.utils.KeysetCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,7 +24,68 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
 
     Optional<OrderEntity> findByBill_Id(UUID billId);
 
+    @EntityGraph(attributePaths = {"orderItems", "bill"})
     List<OrderEntity> findAllByUser_Id(UUID userId);
 
+    /**
+     * Loads every order with its items and bill in one statement, for mapping to DTOs.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "bill"})
+    @Query("SELECT o FROM OrderEntity o")
+    List<OrderEntity> findAllWithItems();
+
+    @EntityGraph(attributePaths = {"orderItems", "bill"})
+    Optional<OrderEntity> findWithItemsById(UUID id);
+
+    @EntityGraph(attributePaths = {"orderItems", "bill"})
+    Optional<OrderEntity> findWithItemsByBill_Id(UUID billId);
+
     Optional<OrderEntity> findByUserAndStatus(User user, Status status);
+
+    /**
+     * Loads an order whose items are about to change. Its version is bumped on commit even though only item rows
+     * are written, so concurrent item edits on the same order conflict instead of overwriting each other.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<OrderEntity> findForItemChangeById(UUID id);
+
+    /**
+     * Returns the sort keys of one page of matching orders. Only index columns are read; the orders themselves
+     * are loaded afterwards with {@link #findAllWithItemsByIdIn}, because a collection fetch cannot be limited in SQL.
+     */
+    @Query("SELECT new com.mitar.dipl.utils.KeysetCursor(o.createdAt, o.id) FROM OrderEntity o " +
+            "WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:userId IS NULL OR o.user.id = :userId) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "ORDER BY o.createdAt, o.id")
+    List<KeysetCursor> findSearchPage(@Param("status") Status status,
+                                      @Param("userId") UUID userId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Pageable pageable);
+
+    @Query("SELECT new com.mitar.dipl.utils.KeysetCursor(o.createdAt, o.id) FROM OrderEntity o " +
+            "WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:userId IS NULL OR o.user.id = :userId) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (o.createdAt > :afterTime OR (o.createdAt = :afterTime AND o.id > :afterId)) " +
+            "ORDER BY o.createdAt, o.id")
+    List<KeysetCursor> findSearchPageAfter(@Param("status") Status status,
+                                           @Param("userId") UUID userId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("afterTime") LocalDateTime afterTime,
+                                           @Param("afterId") UUID afterId,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = {"orderItems", "bill"})
+    List<OrderEntity> findAllWithItemsByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.menuItem"})
+    List<OrderEntity> findAllWithMenuItemsByStatusIn(Collection<Status> statuses);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.menuItem"})
+    Optional<OrderEntity> findWithMenuItemsById(UUID id);
 }
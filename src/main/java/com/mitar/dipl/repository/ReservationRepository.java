@@ -1,15 +1,24 @@
 package com.mitar.dipl.repository;
 
+import com.mitar.dipl.model.dto.reservation.ReservationBooking;
+import com.mitar.dipl.model.dto.reservation.ReservationGuest;
+import com.mitar.dipl.model.dto.reservation.ReservationReminder;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
 import com.mitar.dipl.model.entity.Reservation;
 import com.mitar.dipl.model.entity.TableEntity;
 import com.mitar.dipl.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -41,4 +50,89 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
     boolean existsByGuestEmailAndReservationTimeAndIdNot(String guestEmail, LocalDateTime reservationTime, UUID id);
 
     Optional<Reservation> findByUserAndTable(User user, TableEntity table);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationSlot(r.id, r.table.id, r.reservationTime, r.numberOfGuests) " +
+            "FROM Reservation r WHERE r.reservationTime >= :from")
+    List<ReservationSlot> findSlotsFrom(@Param("from") LocalDateTime from);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationSlot(r.id, r.table.id, r.reservationTime, r.numberOfGuests) " +
+            "FROM Reservation r WHERE r.reservationTime >= :from AND r.reservationTime < :to")
+    List<ReservationSlot> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationSlot(r.id, r.table.id, r.reservationTime, r.numberOfGuests) " +
+            "FROM Reservation r WHERE r.table.id IN :tableIds AND r.reservationTime BETWEEN :start AND :end")
+    List<ReservationSlot> findSlotsForTablesBetween(@Param("tableIds") Collection<UUID> tableIds,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationBooking(r.user.id, r.guestEmail, r.reservationTime) " +
+            "FROM Reservation r WHERE r.user.id IN :userIds AND r.reservationTime IN :times")
+    List<ReservationBooking> findUserBookingsAt(@Param("userIds") Collection<UUID> userIds,
+                                                @Param("times") Collection<LocalDateTime> times);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationBooking(u.id, r.guestEmail, r.reservationTime) " +
+            "FROM Reservation r LEFT JOIN r.user u WHERE r.guestEmail IN :guestEmails AND r.reservationTime IN :times")
+    List<ReservationBooking> findGuestBookingsAt(@Param("guestEmails") Collection<String> guestEmails,
+                                                 @Param("times") Collection<LocalDateTime> times);
+
+    @Query("SELECT DISTINCT r.table.id FROM Reservation r WHERE r.reservationTime BETWEEN :start AND :end")
+    Set<UUID> findBookedTableIds(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.reservationTime >= :from AND r.reservationTime < :to " +
+            "AND (:tableId IS NULL OR r.table.id = :tableId) " +
+            "ORDER BY r.reservationTime, r.id")
+    List<Reservation> findPageInRange(@Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("tableId") UUID tableId,
+                                      Pageable pageable);
+
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.reservationTime >= :from AND r.reservationTime < :to " +
+            "AND (:tableId IS NULL OR r.table.id = :tableId) " +
+            "AND (r.reservationTime > :afterTime OR (r.reservationTime = :afterTime AND r.id > :afterId)) " +
+            "ORDER BY r.reservationTime, r.id")
+    List<Reservation> findPageInRangeAfter(@Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("tableId") UUID tableId,
+                                           @Param("afterTime") LocalDateTime afterTime,
+                                           @Param("afterId") UUID afterId,
+                                           Pageable pageable);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationGuest(r.id, r.reservationTime, r.guestName, r.guestEmail, r.guestPhone) " +
+            "FROM Reservation r WHERE r.reservationTime >= :from " +
+            "AND (r.guestName IS NOT NULL OR r.guestEmail IS NOT NULL OR r.guestPhone IS NOT NULL)")
+    List<ReservationGuest> findGuestsFrom(@Param("from") LocalDateTime from);
+
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.guestNameNormalized LIKE :namePrefix " +
+            "OR r.guestEmailNormalized LIKE :emailPrefix " +
+            "OR r.guestPhoneNormalized LIKE :phonePrefix " +
+            "ORDER BY r.reservationTime DESC")
+    List<Reservation> findByNormalizedGuestPrefix(@Param("namePrefix") String namePrefix,
+                                                  @Param("emailPrefix") String emailPrefix,
+                                                  @Param("phonePrefix") String phonePrefix,
+                                                  Pageable pageable);
+
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.id > :afterId AND (" +
+            "(r.guestName IS NOT NULL AND r.guestNameNormalized IS NULL) " +
+            "OR (r.guestEmail IS NOT NULL AND r.guestEmailNormalized IS NULL) " +
+            "OR (r.guestPhone IS NOT NULL AND r.guestPhoneNormalized IS NULL)) " +
+            "ORDER BY r.id")
+    List<Reservation> findWithoutNormalizedGuestFields(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationSlot(r.id, r.table.id, r.reservationTime, r.numberOfGuests) " +
+            "FROM Reservation r WHERE r.reservationTime > :from AND r.reservationTime <= :to AND r.reminderSentAt IS NULL")
+    List<ReservationSlot> findUnremindedSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.mitar.dipl.model.dto.reservation.ReservationReminder(r.id, r.reservationTime, r.numberOfGuests, " +
+            "t.tableNumber, u.email, r.guestName, r.guestEmail, r.guestPhone) " +
+            "FROM Reservation r JOIN r.table t LEFT JOIN r.user u " +
+            "WHERE r.id IN :ids AND r.reminderSentAt IS NULL")
+    List<ReservationReminder> findUnsentReminders(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.reminderSentAt = :sentAt WHERE r.id IN :ids")
+    int markRemindersSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
 }
@@ -1,9 +1,15 @@
 package com.mitar.dipl.repository;
 
 import com.mitar.dipl.model.entity.TableEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +17,12 @@ import java.util.UUID;
 public interface TableRepository extends JpaRepository<TableEntity, UUID> {
 
     Optional<TableEntity> findByTableNumber(Integer tableNumber);
+
+    List<TableEntity> findAllByIsAvailableTrueAndCapacityGreaterThanEqualOrderByCapacityAscTableNumberAsc(Integer capacity);
+
+    List<TableEntity> findAllByIsAvailableTrue();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TableEntity t WHERE t.id IN :ids ORDER BY t.id")
+    List<TableEntity> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
 }
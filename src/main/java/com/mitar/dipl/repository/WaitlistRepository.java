@@ -0,0 +1,30 @@
+package com.mitar.dipl.repository;
+
+import com.mitar.dipl.model.entity.WaitlistEntry;
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    List<WaitlistEntry> findAllByUser_Id(UUID userId);
+
+    List<WaitlistEntry> findAllByStatusAndRequestedTimeGreaterThanEqualOrderByCreatedAtAsc(WaitlistStatus status, LocalDateTime from);
+
+    Optional<WaitlistEntry> findByHoldId(UUID holdId);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :expired WHERE w.status IN :statuses AND w.requestedTime < :before")
+    int expireBefore(@Param("statuses") List<WaitlistStatus> statuses,
+                     @Param("expired") WaitlistStatus expired,
+                     @Param("before") LocalDateTime before);
+}
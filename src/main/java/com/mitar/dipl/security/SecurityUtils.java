@@ -24,6 +24,7 @@ public class SecurityUtils {
     private final TransactionRepository transactionRepository;
     private final StaffRepository staffRepository;
     private final ReservationRepository reservationRepository;
+    private final WaitlistRepository waitlistRepository;
 
     /**
      * Retrieves the email (username) of the currently authenticated user.
@@ -245,6 +246,22 @@ public class SecurityUtils {
         return getCurrentUserUUID().equals(reservation.get(0).getUser().getId());
     }
 
+    /**
+     * Checks if the authenticated user is the owner of the waitlist entry by entry ID.
+     *
+     * @param entryId The UUID of the waitlist entry.
+     * @return True if the user is the owner, false otherwise.
+     */
+    public boolean isWaitlistEntryOwnerByEntryId(String entryId) {
+        UUID parsedEntryId = UUIDUtils.parseUUID(entryId);
+        WaitlistEntry entry = waitlistRepository.findById(parsedEntryId)
+                .orElse(null);
+        if (entry == null || entry.getUser() == null) {
+            return false;
+        }
+        return getCurrentUserUUID().equals(entry.getUser().getId());
+    }
+
     /**
      * Checks if the authenticated user is the owner of the bill by order ID.
      *
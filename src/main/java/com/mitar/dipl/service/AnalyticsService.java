@@ -0,0 +1,18 @@
+package com.mitar.dipl.service;
+
+import com.mitar.dipl.model.dto.analytics.OccupancyHeatmapDto;
+
+import java.time.LocalDate;
+
+public interface AnalyticsService {
+
+    /**
+     * Computes how much of each opening hour every table was occupied by reservations, including archived ones.
+     *
+     * @param from First day of the range (inclusive).
+     * @param to   Last day of the range (inclusive).
+     * @return OccupancyHeatmapDto
+     */
+    OccupancyHeatmapDto getOccupancy(LocalDate from, LocalDate to);
+
+}
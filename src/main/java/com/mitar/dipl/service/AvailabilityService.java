@@ -0,0 +1,44 @@
+package com.mitar.dipl.service;
+
+import com.mitar.dipl.model.dto.availability.DayAvailabilityDto;
+import com.mitar.dipl.model.dto.availability.DayAvailabilitySummaryDto;
+import com.mitar.dipl.model.dto.availability.ReservationAlternativeDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface AvailabilityService {
+
+    /**
+     * Fetches the free start times of every table that fits the party on the given day.
+     *
+     * @param date           The day to search.
+     * @param numberOfGuests The party size.
+     * @return DayAvailabilityDto
+     */
+    DayAvailabilityDto getAvailability(LocalDate date, Integer numberOfGuests);
+
+    /**
+     * Fetches a per-day availability summary for the party over a date range.
+     *
+     * @param from           The first day of the range (inclusive).
+     * @param to             The last day of the range (inclusive).
+     * @param numberOfGuests The party size.
+     * @return List of DayAvailabilitySummaryDto
+     */
+    List<DayAvailabilitySummaryDto> getAvailabilitySummary(LocalDate from, LocalDate to, Integer numberOfGuests);
+
+    /**
+     * Suggests bookable alternatives for a request that conflicted: the same table at the nearest free times,
+     * followed by the best-fitting other tables at the requested time.
+     *
+     * @param tableId         The UUID of the requested table.
+     * @param reservationTime The requested time.
+     * @param numberOfGuests  The party size.
+     * @return Ranked list of ReservationAlternativeDto
+     */
+    List<ReservationAlternativeDto> findAlternatives(UUID tableId, LocalDateTime reservationTime, int numberOfGuests);
+
+}
@@ -2,6 +2,7 @@ package com.mitar.dipl.service;
 
 import com.mitar.dipl.model.dto.order_item.OrderItemCreateDto;
 import com.mitar.dipl.model.dto.order_item.OrderItemDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemsAddDto;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
@@ -44,6 +45,16 @@ public interface OrderItemService {
     OrderItemDto createOrderItem(OrderItemCreateDto orderItemCreateDto);
 
 
+    /**
+     * Adds several MenuItems to an Order at once. A MenuItem already on the Order has its quantity increased
+     * instead of getting a second line.
+     *
+     * @param orderItemsAddDto The DTO containing the Order ID and the quantity to add per MenuItem ID.
+     * @return The added or increased OrderItems.
+     */
+    List<OrderItemDto> addOrderItems(OrderItemsAddDto orderItemsAddDto);
+
+
     /**
      * Deletes an OrderItem by its ID.
      *
@@ -2,7 +2,9 @@ package com.mitar.dipl.service;
 
 import com.mitar.dipl.model.dto.order.OrderCreateDto;
 import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.dto.page.CursorPageDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
@@ -16,6 +18,21 @@ public interface OrderService {
     List<OrderDto> getAllOrders();
 
 
+    /**
+     * Fetches one page of orders matching the given filters, oldest first.
+     *
+     * @param status Optional order status.
+     * @param userId Optional UUID of the user as a string.
+     * @param from   Optional start of the creation time window (inclusive).
+     * @param to     Optional end of the creation time window (exclusive).
+     * @param cursor Cursor from the previous page, or null for the first page.
+     * @param limit  Page size, or null for the default.
+     * @return CursorPageDto of OrderDto
+     */
+    CursorPageDto<OrderDto> searchOrders(String status, String userId, LocalDateTime from, LocalDateTime to,
+                                         String cursor, Integer limit);
+
+
     /**
      * Fetches an order by its ID.
      *
@@ -0,0 +1,31 @@
+package com.mitar.dipl.service;
+
+import com.mitar.dipl.model.dto.page.CursorPageDto;
+import com.mitar.dipl.model.dto.reservation.ArchivedReservationDto;
+
+import java.time.LocalDateTime;
+
+public interface ReservationArchiveService {
+
+    /**
+     * Fetches one page of archived reservations starting within a time window, ordered by time.
+     *
+     * @param from    Start of the window (inclusive).
+     * @param to      End of the window (exclusive).
+     * @param tableId Optional UUID of a table as a string.
+     * @param userId  Optional UUID of a user as a string.
+     * @param cursor  Cursor from the previous page, or null for the first page.
+     * @param limit   Page size, or null for the default.
+     * @return CursorPageDto of ArchivedReservationDto
+     */
+    CursorPageDto<ArchivedReservationDto> getArchivedReservations(LocalDateTime from, LocalDateTime to, String tableId,
+                                                                  String userId, String cursor, Integer limit);
+
+    /**
+     * Moves soft-deleted reservations and reservations older than the retention window into the archive table.
+     *
+     * @return Number of reservations archived.
+     */
+    int archiveReservations();
+
+}
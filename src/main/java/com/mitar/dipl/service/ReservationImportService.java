@@ -0,0 +1,25 @@
+package com.mitar.dipl.service;
+
+import com.mitar.dipl.model.dto.reservation_import.ReservationImportResultDto;
+
+import java.io.InputStream;
+
+public interface ReservationImportService {
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Imports reservations from a CSV (with a header row) or newline-delimited JSON stream. Rows are read and
+     * committed in bounded chunks; rows that fail validation or conflict with other reservations are reported
+     * and skipped while the rest are imported.
+     *
+     * @param input  The uploaded data.
+     * @param format The format of the data.
+     * @return ReservationImportResultDto
+     */
+    ReservationImportResultDto importReservations(InputStream input, Format format);
+
+}
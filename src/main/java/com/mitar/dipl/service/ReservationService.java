@@ -1,9 +1,15 @@
 package com.mitar.dipl.service;
 
+import com.mitar.dipl.model.dto.page.CursorPageDto;
+import com.mitar.dipl.model.dto.reservation.ReservationAutoAssignDto;
 import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
 import com.mitar.dipl.model.dto.reservation.ReservationDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldConfirmDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldDto;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReservationService {
@@ -22,6 +28,18 @@ public interface ReservationService {
      */
     List<ReservationDto> getAllIncludingDeleted();
 
+    /**
+     * Fetches one page of reservations in a time window, ordered by reservation time.
+     *
+     * @param from    Start of the window (inclusive).
+     * @param to      End of the window (exclusive).
+     * @param tableId Optional UUID of the table as a string.
+     * @param cursor  Cursor returned with the previous page, or null for the first page.
+     * @param limit   Maximum number of reservations to return.
+     * @return CursorPageDto of ReservationDto
+     */
+    CursorPageDto<ReservationDto> getReservationsInRange(LocalDateTime from, LocalDateTime to, String tableId, String cursor, Integer limit);
+
     /**
      * Fetches a reservation by its ID.
      *
@@ -70,6 +88,14 @@ public interface ReservationService {
      */
     List<ReservationDto> getReservationsByGuestPhone(String guestPhone);
 
+    /**
+     * Searches reservations by (part of) the guest name, email or phone, tolerating formatting differences.
+     *
+     * @param query The search term.
+     * @return List of ReservationDto
+     */
+    List<ReservationDto> searchGuests(String query);
+
     /**
      * Creates a new reservation.
      *
@@ -78,6 +104,40 @@ public interface ReservationService {
      */
     ReservationDto createReservation(ReservationCreateDto reservationCreateDto);
 
+    /**
+     * Creates a reservation on the best-fitting free table, or on a combination of free tables when no
+     * single table seats the party. Combined reservations share a group ID.
+     *
+     * @param reservationAutoAssignDto The DTO containing the reservation data without a table.
+     * @return List of ReservationDto, one per assigned table
+     */
+    List<ReservationDto> autoAssignReservation(ReservationAutoAssignDto reservationAutoAssignDto);
+
+    /**
+     * Holds a table and start time for a short time without creating a reservation.
+     *
+     * @param reservationHoldCreateDto The DTO containing the table, time and party size to hold.
+     * @return ReservationHoldDto
+     */
+    ReservationHoldDto placeHold(ReservationHoldCreateDto reservationHoldCreateDto);
+
+    /**
+     * Turns an active hold into a reservation.
+     *
+     * @param holdId                    The UUID of the hold as a string.
+     * @param reservationHoldConfirmDto The DTO containing the user or guest details.
+     * @return ReservationDto
+     */
+    ReservationDto confirmHold(String holdId, ReservationHoldConfirmDto reservationHoldConfirmDto);
+
+    /**
+     * Releases an active hold before it expires.
+     *
+     * @param holdId The UUID of the hold as a string.
+     * @return Success message
+     */
+    String releaseHold(String holdId);
+
     /**
      * Deletes (soft-deletes) a reservation by its ID.
      *
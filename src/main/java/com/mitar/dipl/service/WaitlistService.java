@@ -0,0 +1,49 @@
+package com.mitar.dipl.service;
+
+import com.mitar.dipl.model.dto.waitlist.WaitlistCreateDto;
+import com.mitar.dipl.model.dto.waitlist.WaitlistDto;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    /**
+     * Fetches all waitlist entries.
+     *
+     * @return List of WaitlistDto
+     */
+    List<WaitlistDto> getAllEntries();
+
+    /**
+     * Fetches a waitlist entry by its ID.
+     *
+     * @param entryId The UUID of the entry as a string.
+     * @return WaitlistDto
+     */
+    WaitlistDto getEntryById(String entryId);
+
+    /**
+     * Fetches the waitlist entries of a user.
+     *
+     * @param userId The UUID of the user as a string.
+     * @return List of WaitlistDto
+     */
+    List<WaitlistDto> getEntriesByUserId(String userId);
+
+    /**
+     * Puts a party on the waitlist for a time slot.
+     *
+     * @param waitlistCreateDto The DTO containing the requested time, party size and contact details.
+     * @return WaitlistDto
+     */
+    WaitlistDto createEntry(WaitlistCreateDto waitlistCreateDto);
+
+    /**
+     * Takes a party off the waitlist.
+     *
+     * @param entryId The UUID of the entry as a string.
+     * @return Success message
+     */
+    String cancelEntry(String entryId);
+
+}
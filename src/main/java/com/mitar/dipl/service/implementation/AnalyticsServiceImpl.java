@@ -0,0 +1,161 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.model.dto.analytics.OccupancyHeatmapDto;
+import com.mitar.dipl.model.dto.analytics.TableOccupancyDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.service.AnalyticsService;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static com.mitar.dipl.service.reservation.ReservationSchedule.*;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final int MAX_DAYS = 366;
+
+    private static final int FIRST_HOUR = OPENING_TIME.getHour();
+    private static final int HOURS = CLOSING_TIME.getHour() - FIRST_HOUR;
+    private static final long RESERVATION_MINUTES = RESERVATION_DURATION.toMinutes();
+
+    private static final String INTERVALS_SQL =
+            "SELECT table_id, reservation_time FROM reservations " +
+            "WHERE deleted = false AND reservation_time >= ? AND reservation_time < ? " +
+            "UNION ALL " +
+            "SELECT table_id, reservation_time FROM reservations_archive " +
+            "WHERE deleted = false AND reservation_time >= ? AND reservation_time < ? " +
+            "ORDER BY reservation_time";
+
+    private final TableRepository tableRepository;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public AnalyticsServiceImpl(TableRepository tableRepository, DataSource dataSource,
+                                @Value("${analytics.occupancy.fetch-size:-2147483648}") int fetchSize) {
+        this.tableRepository = tableRepository;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Integer.MIN_VALUE tells MySQL Connector/J to stream rows one at a time instead of buffering the whole
+        // result; other drivers reject it and take a positive batch size instead
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Streams reservation start times ordered by time, from the hot and the archive table, without building
+     * entities. A sweep keeps one open interval per table: a reservation that starts before the open one ends
+     * extends it, otherwise the open interval is spread over its hours and the new one starts. Occupied minutes
+     * add up in a {@code [table][hour]} array, so memory does not grow with the number of reservations.
+     */
+    @Override
+    public OccupancyHeatmapDto getOccupancy(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End of the range must not be before its start.");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_DAYS) {
+            throw new BadRequestException("The range can span at most " + MAX_DAYS + " days.");
+        }
+        log.debug("Computing occupancy from {} to {}", from, to);
+        long started = System.nanoTime();
+
+        List<TableEntity> tables = tableRepository.findAll().stream()
+                .sorted(Comparator.comparing(TableEntity::getTableNumber))
+                .toList();
+        Map<UUID, Integer> tableIndex = new HashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            tableIndex.put(tables.get(i).getId(), i);
+        }
+
+        long[][] occupiedMinutes = new long[tables.size()][HOURS];
+        long[] openStart = new long[tables.size()];
+        long[] openEnd = new long[tables.size()];
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        long[] rows = {0};
+        streamingJdbcTemplate.query(INTERVALS_SQL, resultSet -> {
+            rows[0]++;
+            Integer table = tableIndex.get(UUIDUtils.fromBytes(resultSet.getBytes(1)));
+            if (table == null) {
+                return;
+            }
+            long intervalStart = epochMinute(resultSet.getObject(2, LocalDateTime.class));
+            long intervalEnd = intervalStart + RESERVATION_MINUTES;
+            if (intervalStart < openEnd[table]) {
+                openEnd[table] = Math.max(openEnd[table], intervalEnd);
+                return;
+            }
+            addMinutes(occupiedMinutes[table], openStart[table], openEnd[table]);
+            openStart[table] = intervalStart;
+            openEnd[table] = intervalEnd;
+        }, start, end, start, end);
+        for (int table = 0; table < tables.size(); table++) {
+            addMinutes(occupiedMinutes[table], openStart[table], openEnd[table]);
+        }
+
+        long minutesPerHour = days * 60L;
+        long[] restaurantMinutes = new long[HOURS];
+        List<TableOccupancyDto> tableOccupancies = new ArrayList<>(tables.size());
+        for (int table = 0; table < tables.size(); table++) {
+            int[] byHour = new int[HOURS];
+            long total = 0;
+            for (int hour = 0; hour < HOURS; hour++) {
+                byHour[hour] = percent(occupiedMinutes[table][hour], minutesPerHour);
+                total += occupiedMinutes[table][hour];
+                restaurantMinutes[hour] += occupiedMinutes[table][hour];
+            }
+            TableEntity entity = tables.get(table);
+            tableOccupancies.add(new TableOccupancyDto(entity.getId().toString(), entity.getTableNumber(),
+                    percent(total, minutesPerHour * HOURS), byHour));
+        }
+
+        int[] hours = new int[HOURS];
+        int[] restaurantByHour = new int[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            hours[hour] = FIRST_HOUR + hour;
+            restaurantByHour[hour] = percent(restaurantMinutes[hour], minutesPerHour * Math.max(tables.size(), 1));
+        }
+
+        log.info("Computed occupancy of {} tables from {} reservations over {} days in {} ms.",
+                tables.size(), rows[0], days, (System.nanoTime() - started) / 1_000_000);
+        return new OccupancyHeatmapDto(from, to, days, hours, restaurantByHour, tableOccupancies);
+    }
+
+    /**
+     * Spreads the minutes of {@code [start, end)} over the opening hours they fall into.
+     */
+    private static void addMinutes(long[] minutesByHour, long start, long end) {
+        long cursor = start;
+        while (cursor < end) {
+            long hourEnd = (cursor / 60 + 1) * 60;
+            long until = Math.min(end, hourEnd);
+            int hour = (int) Math.floorMod(cursor / 60, 24L) - FIRST_HOUR;
+            if (hour >= 0 && hour < HOURS) {
+                minutesByHour[hour] += until - cursor;
+            }
+            cursor = until;
+        }
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static int percent(long part, long whole) {
+        return whole == 0 ? 0 : (int) Math.round(part * 100.0 / whole);
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.model.dto.availability.DayAvailabilityDto;
+import com.mitar.dipl.model.dto.availability.DayAvailabilitySummaryDto;
+import com.mitar.dipl.model.dto.availability.ReservationAlternativeDto;
+import com.mitar.dipl.model.dto.availability.TableAvailabilityDto;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.ReservationRepository;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.service.AvailabilityService;
+import com.mitar.dipl.service.reservation.ReservationHoldRegistry;
+import com.mitar.dipl.service.reservation.SlotBitmap;
+import com.mitar.dipl.service.reservation.SlotCoverCounter;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final int MAX_RANGE_DAYS = 62;
+    private static final int MAX_ALTERNATIVES_PER_KIND = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final TableRepository tableRepository;
+    private final ReservationHoldRegistry reservationHoldRegistry;
+    private final SlotCoverCounter slotCoverCounter;
+
+    @Override
+    public DayAvailabilityDto getAvailability(LocalDate date, Integer numberOfGuests) {
+        log.debug("Fetching availability for {} guests on {}", numberOfGuests, date);
+        validateRequest(date, date, numberOfGuests);
+
+        List<TableEntity> tables = tableRepository.findAllByIsAvailableTrueAndCapacityGreaterThanEqualOrderByCapacityAscTableNumberAsc(numberOfGuests);
+        Map<UUID, long[]> blocked = loadBlockedSlots(date, date);
+        long withRoom = slotCoverCounter.slotsWithRoom(date, numberOfGuests);
+
+        List<TableAvailabilityDto> tableAvailabilities = new ArrayList<>();
+        for (TableEntity table : tables) {
+            long free = freeStarts(blocked, table.getId(), 0) & withRoom;
+            if (free == 0) {
+                continue;
+            }
+            TableAvailabilityDto dto = new TableAvailabilityDto();
+            dto.setTableId(table.getId().toString());
+            dto.setTableNumber(table.getTableNumber());
+            dto.setCapacity(table.getCapacity());
+            dto.setFreeStartTimes(SlotBitmap.toTimes(free));
+            tableAvailabilities.add(dto);
+        }
+
+        DayAvailabilityDto availability = new DayAvailabilityDto();
+        availability.setDate(date);
+        availability.setNumberOfGuests(numberOfGuests);
+        availability.setMaxCoversPerSlot(slotCoverCounter.isLimited() ? slotCoverCounter.getMaxCoversPerSlot() : null);
+        availability.setTables(tableAvailabilities);
+
+        log.info("Found {} available tables for {} guests on {}", tableAvailabilities.size(), numberOfGuests, date);
+        return availability;
+    }
+
+    @Override
+    public List<DayAvailabilitySummaryDto> getAvailabilitySummary(LocalDate from, LocalDate to, Integer numberOfGuests) {
+        log.debug("Fetching availability summary for {} guests from {} to {}", numberOfGuests, from, to);
+        validateRequest(from, to, numberOfGuests);
+
+        List<TableEntity> tables = tableRepository.findAllByIsAvailableTrueAndCapacityGreaterThanEqualOrderByCapacityAscTableNumberAsc(numberOfGuests);
+        Map<UUID, long[]> blocked = loadBlockedSlots(from, to);
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<DayAvailabilitySummaryDto> summaries = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            int availableTables = 0;
+            long anyFree = 0L;
+            long withRoom = slotCoverCounter.slotsWithRoom(from.plusDays(day), numberOfGuests);
+            for (TableEntity table : tables) {
+                long free = freeStarts(blocked, table.getId(), day) & withRoom;
+                if (free != 0) {
+                    availableTables++;
+                    anyFree |= free;
+                }
+            }
+
+            DayAvailabilitySummaryDto summary = new DayAvailabilitySummaryDto();
+            summary.setDate(from.plusDays(day));
+            summary.setAvailableTables(availableTables);
+            summary.setAvailableStartSlots(Long.bitCount(anyFree));
+            summary.setMaxCoversPerSlot(slotCoverCounter.isLimited() ? slotCoverCounter.getMaxCoversPerSlot() : null);
+            if (anyFree != 0) {
+                summary.setFirstAvailableTime(SlotBitmap.timeOf(Long.numberOfTrailingZeros(anyFree)));
+                summary.setLastAvailableTime(SlotBitmap.timeOf(Long.SIZE - 1 - Long.numberOfLeadingZeros(anyFree)));
+            }
+            summaries.add(summary);
+        }
+
+        log.info("Computed availability summary for {} days and {} tables.", days, tables.size());
+        return summaries;
+    }
+
+    @Override
+    public List<ReservationAlternativeDto> findAlternatives(UUID tableId, LocalDateTime reservationTime, int numberOfGuests) {
+        LocalDate date = reservationTime.toLocalDate();
+        int requestedSlot = SlotBitmap.slotContaining(reservationTime.toLocalTime());
+        if (requestedSlot < 0) {
+            return List.of();
+        }
+
+        // One scan of the day serves both kinds of suggestions
+        List<TableEntity> tables = tableRepository.findAllByIsAvailableTrueAndCapacityGreaterThanEqualOrderByCapacityAscTableNumberAsc(numberOfGuests);
+        Map<UUID, long[]> blocked = loadBlockedSlots(date, date);
+        long withRoom = slotCoverCounter.slotsWithRoom(date, numberOfGuests);
+        long requestedBit = 1L << requestedSlot;
+
+        List<ReservationAlternativeDto> alternatives = new ArrayList<>();
+        List<ReservationAlternativeDto> otherTables = new ArrayList<>();
+        for (TableEntity table : tables) {
+            long free = freeStarts(blocked, table.getId(), 0) & withRoom;
+            if (table.getId().equals(tableId)) {
+                for (int slot : nearestSlots(free, requestedSlot)) {
+                    alternatives.add(toAlternative(table, date.atTime(SlotBitmap.timeOf(slot))));
+                }
+            } else if ((free & requestedBit) != 0 && otherTables.size() < MAX_ALTERNATIVES_PER_KIND) {
+                otherTables.add(toAlternative(table, date.atTime(SlotBitmap.timeOf(requestedSlot))));
+            }
+        }
+        alternatives.addAll(otherTables);
+
+        log.debug("Found {} alternatives for table {} at {}", alternatives.size(), tableId, reservationTime);
+        return alternatives;
+    }
+
+    /**
+     * Picks the free slots closest to the requested one, earlier first on ties.
+     */
+    private static List<Integer> nearestSlots(long free, int requestedSlot) {
+        List<Integer> slots = new ArrayList<>(MAX_ALTERNATIVES_PER_KIND);
+        for (int distance = 1; distance < SlotBitmap.SLOTS_PER_DAY && slots.size() < MAX_ALTERNATIVES_PER_KIND; distance++) {
+            for (int slot : new int[]{requestedSlot - distance, requestedSlot + distance}) {
+                if (slot >= 0 && slot < SlotBitmap.SLOTS_PER_DAY && (free & (1L << slot)) != 0
+                        && slots.size() < MAX_ALTERNATIVES_PER_KIND) {
+                    slots.add(slot);
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static ReservationAlternativeDto toAlternative(TableEntity table, LocalDateTime reservationTime) {
+        ReservationAlternativeDto dto = new ReservationAlternativeDto();
+        dto.setTableId(table.getId().toString());
+        dto.setTableNumber(table.getTableNumber());
+        dto.setCapacity(table.getCapacity());
+        dto.setReservationTime(reservationTime);
+        return dto;
+    }
+
+    /**
+     * Loads every reservation in the range with one range scan and folds them into per-table, per-day bitmaps
+     * of blocked start slots.
+     *
+     * @param from The first day (inclusive).
+     * @param to   The last day (inclusive).
+     * @return Map of table ID to blocked bitmaps indexed by day offset from {@code from}.
+     */
+    private Map<UUID, long[]> loadBlockedSlots(LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<ReservationSlot> slots = new ArrayList<>(reservationRepository.findSlotsBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+        // Held slots are as unavailable as booked ones
+        slots.addAll(reservationHoldRegistry.findSlotsBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+
+        Map<UUID, long[]> blocked = new HashMap<>();
+        for (ReservationSlot slot : slots) {
+            int day = (int) ChronoUnit.DAYS.between(from, slot.getReservationTime().toLocalDate());
+            blocked.computeIfAbsent(slot.getTableId(), id -> new long[days])[day] |=
+                    SlotBitmap.blockedBy(slot.getReservationTime().toLocalTime());
+        }
+        return blocked;
+    }
+
+    private static long freeStarts(Map<UUID, long[]> blocked, UUID tableId, int day) {
+        long[] tableBlocked = blocked.get(tableId);
+        return SlotBitmap.BOOKABLE_STARTS & ~(tableBlocked != null ? tableBlocked[day] : 0L);
+    }
+
+    private void validateRequest(LocalDate from, LocalDate to, Integer numberOfGuests) {
+        if (numberOfGuests == null || numberOfGuests < 1) {
+            throw new BadRequestException("There must be at least one guest.");
+        }
+        if (!from.isAfter(LocalDate.now())) {
+            throw new BadRequestException("Availability can only be checked for future dates.");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before start date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days.");
+        }
+    }
+
+}
@@ -16,7 +16,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -66,12 +65,8 @@ public class BillServiceImpl implements BillService {
             throw new BadRequestException("Bill for order with ID " + orderUUID + " already exists.");
         }
 
-        BigDecimal totalAmount = order.getOrderItems().stream()
-                .map(orderItem -> orderItem.getMenuItem().getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         Bill bill = new Bill();
-        bill.setTotalAmount(totalAmount);
+        bill.setTotalAmount(order.getSubtotal());
         bill.setOrderEntity(order);
 
         order.setBill(bill);
@@ -1,10 +1,12 @@
 package com.mitar.dipl.service.implementation;
 
+import com.mitar.dipl.event.OrderChangedEvent;
 import com.mitar.dipl.exception.custom.BadRequestException;
 import com.mitar.dipl.exception.custom.ResourceNotFoundException;
 import com.mitar.dipl.mapper.OrderItemMapper;
 import com.mitar.dipl.model.dto.order_item.OrderItemCreateDto;
 import com.mitar.dipl.model.dto.order_item.OrderItemDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemsAddDto;
 import com.mitar.dipl.model.entity.MenuItem;
 import com.mitar.dipl.model.entity.OrderEntity;
 import com.mitar.dipl.model.entity.OrderItem;
@@ -16,12 +18,13 @@ import com.mitar.dipl.service.OrderItemService;
 import com.mitar.dipl.utils.UUIDUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.math.BigDecimal;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,10 +33,27 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderItemServiceImpl implements OrderItemService {
 
+    /**
+     * Claims an open order for an item change: moves its totals, bumps its version like a forced increment would,
+     * and matches no row if the order does not exist or is no longer open.
+     */
+    private static final String CLAIM_OPEN_ORDER_SQL =
+            "UPDATE orders SET subtotal = subtotal + ?, item_count = item_count + ?, version = version + 1 " +
+            "WHERE id = ? AND status IN ('PENDING', 'IN_PROGRESS')";
+
+    /**
+     * Relies on the unique key on (order_id, menu_item_id): a MenuItem already on the order is increased in place.
+     */
+    private static final String UPSERT_ITEM_SQL =
+            "INSERT INTO order_items (id, order_id, menu_item_id, quantity, price, version) VALUES (?, ?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + ?, price = price + ?, version = version + 1";
+
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
     private final MenuItemRepository menuItemRepository;
     private final OrderItemMapper orderItemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public List<OrderItemDto> getAllOrderItems() {
@@ -80,6 +100,10 @@ public class OrderItemServiceImpl implements OrderItemService {
         return orderItemDtos;
     }
 
+    /**
+     * Goes through the same upsert as {@link #addOrderItems}, so concurrent adds of the same MenuItem increase one
+     * line instead of racing to insert it.
+     */
     @Override
     public OrderItemDto createOrderItem(OrderItemCreateDto orderItemCreateDto) {
         UUID orderId = UUIDUtils.parseUUID(orderItemCreateDto.getOrderId());
@@ -87,41 +111,81 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         log.debug("Attempting to create OrderItem for Order ID: {} and MenuItem ID: {}", orderId, menuItemId);
 
-        OrderEntity orderEntity = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.warn("Order not found with ID: {}", orderId);
-                    return new ResourceNotFoundException("Order not found with ID: " + orderId);
-                });
-
         MenuItem menuItemEntity = menuItemRepository.findById(menuItemId)
                 .orElseThrow(() -> {
                     log.warn("MenuItem not found with ID: {}", menuItemId);
                     return new ResourceNotFoundException("MenuItem not found with ID: " + menuItemId);
                 });
 
-        if (!(orderEntity.getStatus().equals(Status.PENDING) || orderEntity.getStatus().equals(Status.IN_PROGRESS))) {
+        OrderItemDto orderItemDto = upsertItems(orderId, List.of(menuItemEntity), Map.of(menuItemId, orderItemCreateDto.getQuantity())).get(0);
+        log.info("Added MenuItem ID: {} to Order ID: {} as OrderItem ID: {}", menuItemId, orderId, orderItemDto.getId());
+        return orderItemDto;
+    }
+
+    /**
+     * Costs a fixed number of round trips however many items are added: one query prices the menu items, one
+     * statement claims the order and moves its totals, and a single batch upserts every line.
+     */
+    @Override
+    public List<OrderItemDto> addOrderItems(OrderItemsAddDto orderItemsAddDto) {
+        UUID orderId = UUIDUtils.parseUUID(orderItemsAddDto.getOrderId());
+        Map<UUID, Integer> quantities = new HashMap<>();
+        orderItemsAddDto.getMenuItemIdsAndQuantities().forEach((menuItemId, quantity) ->
+                quantities.merge(UUIDUtils.parseUUID(menuItemId), quantity, Integer::sum));
+
+        log.debug("Attempting to add {} MenuItems to Order ID: {}", quantities.size(), orderId);
+
+        List<MenuItem> menuItems = menuItemRepository.findAllById(quantities.keySet());
+        if (menuItems.size() != quantities.size()) {
+            Set<UUID> notFoundIds = new HashSet<>(quantities.keySet());
+            menuItems.forEach(menuItem -> notFoundIds.remove(menuItem.getId()));
+            log.warn("MenuItems not found with IDs: {}", notFoundIds);
+            throw new BadRequestException("MenuItems not found with the provided IDs: " + notFoundIds);
+        }
+
+        List<OrderItemDto> orderItemDtos = upsertItems(orderId, menuItems, quantities);
+        log.info("Added {} MenuItems to Order ID: {}", orderItemDtos.size(), orderId);
+        return orderItemDtos;
+    }
+
+    /**
+     * Claims the open order, moving its totals, and upserts one line per MenuItem in a single batch.
+     */
+    private List<OrderItemDto> upsertItems(UUID orderId, List<MenuItem> menuItems, Map<UUID, Integer> quantities) {
+        BigDecimal addedPrice = BigDecimal.ZERO;
+        int addedQuantity = 0;
+        for (MenuItem menuItem : menuItems) {
+            int quantity = quantities.get(menuItem.getId());
+            addedPrice = addedPrice.add(linePrice(menuItem, quantity));
+            addedQuantity += quantity;
+        }
+
+        if (jdbcTemplate.update(CLAIM_OPEN_ORDER_SQL, addedPrice, addedQuantity, UUIDUtils.toBytes(orderId)) == 0) {
+            if (!orderRepository.existsById(orderId)) {
+                log.warn("Order not found with ID: {}", orderId);
+                throw new ResourceNotFoundException("Order not found with ID: " + orderId);
+            }
             log.warn("Order status is not PENDING or IN_PROGRESS for Order ID: {}", orderId);
             throw new BadRequestException("Order status is not PENDING or IN_PROGRESS.");
         }
 
-        Optional<OrderItem> existingOrderItemOpt = orderItemRepository.findByOrderEntityAndMenuItem(orderEntity, menuItemEntity);
-        if (existingOrderItemOpt.isPresent()) {
-            OrderItem existingOrderItem = existingOrderItemOpt.get();
-            existingOrderItem.setQuantity(existingOrderItem.getQuantity() + orderItemCreateDto.getQuantity());
-            existingOrderItem.setPrice(orderItemCreateDto.getPrice());
-            orderItemRepository.save(existingOrderItem);
-            log.info("Updated OrderItem ID: {} for Order ID: {}", existingOrderItem.getId(), orderId);
-            return orderItemMapper.toDto(existingOrderItem);
-        } else {
-            OrderItem newOrderItem = new OrderItem();
-            newOrderItem.setPrice(orderItemCreateDto.getPrice());
-            newOrderItem.setQuantity(orderItemCreateDto.getQuantity());
-            newOrderItem.setOrderEntity(orderEntity);
-            newOrderItem.setMenuItem(menuItemEntity);
-            orderItemRepository.save(newOrderItem);
-            log.info("Created new OrderItem ID: {} for Order ID: {}", newOrderItem.getId(), orderId);
-            return orderItemMapper.toDto(newOrderItem);
-        }
+        byte[] orderIdBytes = UUIDUtils.toBytes(orderId);
+        jdbcTemplate.batchUpdate(UPSERT_ITEM_SQL, menuItems, menuItems.size(), (statement, menuItem) -> {
+            int quantity = quantities.get(menuItem.getId());
+            BigDecimal price = linePrice(menuItem, quantity);
+            statement.setBytes(1, UUIDUtils.toBytes(UUID.randomUUID()));
+            statement.setBytes(2, orderIdBytes);
+            statement.setBytes(3, UUIDUtils.toBytes(menuItem.getId()));
+            statement.setInt(4, quantity);
+            statement.setBigDecimal(5, price);
+            statement.setInt(6, quantity);
+            statement.setBigDecimal(7, price);
+        });
+        eventPublisher.publishEvent(new OrderChangedEvent(orderId));
+
+        return orderItemRepository.findAllByOrderEntity_IdAndMenuItem_IdIn(orderId, quantities.keySet()).stream()
+                .map(orderItemMapper::toDto)
+                .toList();
     }
 
     @Override
@@ -135,7 +199,7 @@ public class OrderItemServiceImpl implements OrderItemService {
                     return new ResourceNotFoundException("OrderItem not found with ID: " + orderItemId);
                 });
 
-        OrderEntity orderEntity = orderItem.getOrderEntity();
+        OrderEntity orderEntity = orderRepository.findForItemChangeById(orderItem.getOrderEntity().getId()).orElseThrow();
 
         if (!(orderEntity.getStatus().equals(Status.PENDING) || orderEntity.getStatus().equals(Status.IN_PROGRESS))) {
             log.warn("Order status is not PENDING or IN_PROGRESS for Order ID: {}", orderEntity.getId());
@@ -144,6 +208,7 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         orderEntity.removeOrderItem(orderItem);
         orderRepository.save(orderEntity);
+        eventPublisher.publishEvent(new OrderChangedEvent(orderEntity.getId()));
 
         log.info("Deleted OrderItem ID: {} from Order ID: {}", orderItemId, orderEntity.getId());
         return "OrderItem deleted successfully.";
@@ -169,7 +234,7 @@ public class OrderItemServiceImpl implements OrderItemService {
                     return new ResourceNotFoundException("MenuItem not found with ID: " + newMenuItemId);
                 });
 
-        OrderEntity currentOrderEntity = existingOrderItem.getOrderEntity();
+        OrderEntity currentOrderEntity = orderRepository.findForItemChangeById(existingOrderItem.getOrderEntity().getId()).orElseThrow();
 
         if (!currentOrderEntity.getId().toString().equals(orderItemCreateDto.getOrderId())) {
             log.warn("Order ID mismatch for OrderItem ID: {}", orderItemId);
@@ -180,6 +245,7 @@ public class OrderItemServiceImpl implements OrderItemService {
             log.warn("Order status is not PENDING or IN_PROGRESS for Order ID: {}", currentOrderEntity.getId());
             throw new BadRequestException("Order status is not PENDING or IN_PROGRESS.");
         }
+        eventPublisher.publishEvent(new OrderChangedEvent(currentOrderEntity.getId()));
 
         boolean menuItemChanged = !existingOrderItem.getMenuItem().getId().equals(newMenuItemId);
 
@@ -188,8 +254,8 @@ public class OrderItemServiceImpl implements OrderItemService {
 
             if (duplicateOrderItemOpt.isPresent()) {
                 OrderItem duplicateOrderItem = duplicateOrderItemOpt.get();
-                duplicateOrderItem.setQuantity(duplicateOrderItem.getQuantity() + existingOrderItem.getQuantity());
-                duplicateOrderItem.setPrice(orderItemCreateDto.getPrice());
+                int quantity = duplicateOrderItem.getQuantity() + existingOrderItem.getQuantity();
+                currentOrderEntity.changeOrderItem(duplicateOrderItem, quantity, linePrice(newMenuItem, quantity));
                 orderItemRepository.save(duplicateOrderItem);
 
                 currentOrderEntity.removeOrderItem(existingOrderItem);
@@ -201,16 +267,16 @@ public class OrderItemServiceImpl implements OrderItemService {
                 return orderItemMapper.toDto(duplicateOrderItem);
             } else {
                 existingOrderItem.setMenuItem(newMenuItem);
-                existingOrderItem.setQuantity(orderItemCreateDto.getQuantity());
-                existingOrderItem.setPrice(orderItemCreateDto.getPrice());
+                currentOrderEntity.changeOrderItem(existingOrderItem, orderItemCreateDto.getQuantity(),
+                        linePrice(newMenuItem, orderItemCreateDto.getQuantity()));
                 orderItemRepository.save(existingOrderItem);
                 log.info("Updated MenuItem for OrderItem ID: {} to MenuItem ID: {}",
                         existingOrderItem.getId(), newMenuItemId);
                 return orderItemMapper.toDto(existingOrderItem);
             }
         } else {
-            existingOrderItem.setQuantity(orderItemCreateDto.getQuantity());
-            existingOrderItem.setPrice(orderItemCreateDto.getPrice());
+            currentOrderEntity.changeOrderItem(existingOrderItem, orderItemCreateDto.getQuantity(),
+                    linePrice(newMenuItem, orderItemCreateDto.getQuantity()));
 
             OrderItem updatedOrderItem = orderItemRepository.save(existingOrderItem);
             log.info("Updated OrderItem ID: {}", updatedOrderItem.getId());
@@ -218,4 +284,12 @@ public class OrderItemServiceImpl implements OrderItemService {
             return orderItemMapper.toDto(updatedOrderItem);
         }
     }
+
+    /**
+     * Prices a line from the menu, like order creation does, so the order's running subtotal matches its bill.
+     */
+    private static BigDecimal linePrice(MenuItem menuItem, int quantity) {
+        return menuItem.getPrice().multiply(BigDecimal.valueOf(quantity));
+    }
+
 }
@@ -1,10 +1,13 @@
 package com.mitar.dipl.service.implementation;
 
+import com.mitar.dipl.event.OrderChangedEvent;
 import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.ConflictException;
 import com.mitar.dipl.exception.custom.ResourceNotFoundException;
 import com.mitar.dipl.mapper.OrderMapper;
 import com.mitar.dipl.model.dto.order.OrderCreateDto;
 import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.dto.page.CursorPageDto;
 import com.mitar.dipl.model.entity.MenuItem;
 import com.mitar.dipl.model.entity.OrderEntity;
 import com.mitar.dipl.model.entity.OrderItem;
@@ -14,13 +17,17 @@ import com.mitar.dipl.repository.MenuItemRepository;
 import com.mitar.dipl.repository.OrderRepository;
 import com.mitar.dipl.repository.UserRepository;
 import com.mitar.dipl.service.OrderService;
+import com.mitar.dipl.utils.KeysetCursor;
 import com.mitar.dipl.utils.UUIDUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,15 +37,20 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final MenuItemRepository menuItemRepository;
     private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
         log.info("Fetching all orders.");
-        List<OrderDto> orderDtos = orderRepository.findAll().stream()
+        List<OrderDto> orderDtos = orderRepository.findAllWithItems().stream()
                 .map(orderMapper::toDto)
                 .toList();
         log.info("Fetched {} orders.", orderDtos.size());
@@ -46,11 +58,63 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> searchOrders(String status, String userId, LocalDateTime from, LocalDateTime to,
+                                                String cursor, Integer limit) {
+        log.debug("Searching orders with status {}, user {}, from {} to {} after cursor {}", status, userId, from, to, cursor);
+
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new BadRequestException("End of the time window must be after its start.");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        Status parsedStatus = null;
+        if (status != null && !status.isEmpty()) {
+            try {
+                parsedStatus = Status.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid order status: " + status);
+            }
+        }
+        UUID parsedUserId = userId != null && !userId.isEmpty() ? UUIDUtils.parseUUID(userId) : null;
+
+        // One extra key tells whether another page follows without a count query
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<KeysetCursor> keys;
+        if (cursor == null || cursor.isEmpty()) {
+            keys = orderRepository.findSearchPage(parsedStatus, parsedUserId, from, to, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            keys = orderRepository.findSearchPageAfter(parsedStatus, parsedUserId, from, to, after.time(), after.id(), page);
+        }
+
+        String nextCursor = null;
+        if (keys.size() > pageSize) {
+            keys = keys.subList(0, pageSize);
+            nextCursor = keys.get(pageSize - 1).encode();
+        }
+
+        Map<UUID, OrderEntity> ordersById = orderRepository.findAllWithItemsByIdIn(keys.stream().map(KeysetCursor::id).toList())
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getId, order -> order));
+        List<OrderDto> orderDtos = keys.stream()
+                .map(key -> ordersById.get(key.id()))
+                .filter(Objects::nonNull)
+                .map(orderMapper::toDto)
+                .toList();
+        log.info("Found {} orders.", orderDtos.size());
+        return new CursorPageDto<>(orderDtos, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(String orderId) {
         UUID parsedOrderId = UUIDUtils.parseUUID(orderId);
         log.debug("Fetching Order with ID: {}", parsedOrderId);
 
-        OrderEntity orderEntity = orderRepository.findById(parsedOrderId)
+        OrderEntity orderEntity = orderRepository.findWithItemsById(parsedOrderId)
                 .orElseThrow(() -> {
                     log.warn("Order not found with ID: {}", orderId);
                     return new ResourceNotFoundException("Order not found with ID: " + orderId);
@@ -62,11 +126,12 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderByBillId(String billId) {
         UUID parsedBillId = UUIDUtils.parseUUID(billId);
         log.debug("Fetching Order with Bill ID: {}", parsedBillId);
 
-        OrderEntity orderEntity = orderRepository.findByBill_Id(parsedBillId)
+        OrderEntity orderEntity = orderRepository.findWithItemsByBill_Id(parsedBillId)
                 .orElseThrow(() -> {
                     log.warn("Order not found with Bill ID: {}", billId);
                     return new ResourceNotFoundException("Order not found for the provided Bill ID: " + billId);
@@ -78,6 +143,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByUserId(String userId) {
         UUID parsedUserId = UUIDUtils.parseUUID(userId);
         log.debug("Fetching Orders for User with ID: {}", parsedUserId);
@@ -132,6 +198,7 @@ public class OrderServiceImpl implements OrderService {
         orderEntity.setUser(user);
 
         OrderEntity savedOrder = orderRepository.save(orderEntity);
+        eventPublisher.publishEvent(new OrderChangedEvent(savedOrder.getId()));
         log.info("Created Order ID: {}", savedOrder.getId());
 
         return orderMapper.toDto(savedOrder);
@@ -154,6 +221,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         orderRepository.delete(orderEntity);
+        eventPublisher.publishEvent(new OrderChangedEvent(parsedOrderId));
         log.info("Deleted Order ID: {}", orderId);
         return "Order deleted successfully.";
     }
@@ -169,13 +237,14 @@ public class OrderServiceImpl implements OrderService {
                     return new ResourceNotFoundException("Order not found with ID: " + orderId);
                 });
 
-        if (orderEntity.getStatus() == Status.COMPLETED || orderEntity.getStatus() == Status.CANCELLED) {
+        if (orderEntity.getStatus() == Status.CANCELLED || !orderEntity.getStatus().canTransitionTo(Status.CANCELLED)) {
             log.warn("Cannot cancel Order ID: {} with status: {}", orderId, orderEntity.getStatus());
             throw new BadRequestException("Cannot cancel Order with status: " + orderEntity.getStatus());
         }
 
         orderEntity.setStatus(Status.CANCELLED);
         orderRepository.save(orderEntity);
+        eventPublisher.publishEvent(new OrderChangedEvent(parsedOrderId));
         log.info("Cancelled Order ID: {}", orderId);
         return "Order cancelled successfully.";
     }
@@ -185,12 +254,17 @@ public class OrderServiceImpl implements OrderService {
         UUID parsedOrderId = UUIDUtils.parseUUID(orderId);
         log.debug("Attempting to update Order with ID: {}", parsedOrderId);
 
-        OrderEntity existingOrder = orderRepository.findById(parsedOrderId)
+        OrderEntity existingOrder = orderRepository.findForItemChangeById(parsedOrderId)
                 .orElseThrow(() -> {
                     log.warn("Order not found for update with ID: {}", orderId);
                     return new ResourceNotFoundException("Order not found with ID: " + orderId);
                 });
 
+        if (orderCreateDto.getVersion() != null && !orderCreateDto.getVersion().equals(existingOrder.getVersion())) {
+            log.warn("Stale update of Order ID {}: version {} given, current is {}", orderId, orderCreateDto.getVersion(), existingOrder.getVersion());
+            throw new ConflictException("Order has been modified since version " + orderCreateDto.getVersion() + ". Reload it and try again.");
+        }
+
         if (!(existingOrder.getStatus() == Status.PENDING || existingOrder.getStatus() == Status.IN_PROGRESS)) {
             log.warn("Attempt to update Order ID {} with status {}", orderId, existingOrder.getStatus());
             throw new BadRequestException("Only orders with status PENDING or IN_PROGRESS can be updated.");
@@ -223,34 +297,64 @@ public class OrderServiceImpl implements OrderService {
                 throw new BadRequestException("MenuItems not found with the provided IDs: " + notFoundIds);
             }
 
-            existingOrder.getOrderItems().stream()
-                    .toList()
-                    .forEach(existingOrder::removeOrderItem);
-            log.debug("Cleared existing OrderItems for Order ID: {}", orderId);
-
-            for (MenuItem menuItem : menuItems) {
-                Integer quantity = items.get(menuItem.getId().toString());
-
-                OrderItem orderItem = new OrderItem();
-                orderItem.setMenuItem(menuItem);
-                orderItem.setOrderEntity(existingOrder);
-                orderItem.setQuantity(quantity);
-                orderItem.setPrice(menuItem.getPrice().multiply(BigDecimal.valueOf(quantity)));
-
-                existingOrder.addOrderItem(orderItem);
-            }
-            log.debug("Associated new OrderItems for Order ID: {}", orderId);
+            int changed = applyItemChanges(existingOrder, menuItems, items);
+            log.debug("Applied {} item changes to Order ID: {}", changed, orderId);
         }
 
         if (orderCreateDto.getStatus() != null) {
             Status newStatus = Status.valueOf(orderCreateDto.getStatus().toUpperCase());
+            if (!existingOrder.getStatus().canTransitionTo(newStatus)) {
+                log.warn("Illegal status change of Order ID {} from {} to {}", orderId, existingOrder.getStatus(), newStatus);
+                throw new BadRequestException("Order cannot move from " + existingOrder.getStatus() + " to " + newStatus + ".");
+            }
             existingOrder.setStatus(newStatus);
             log.debug("Updated status to {} for Order ID: {}", newStatus, orderId);
         }
 
         OrderEntity updatedOrder = orderRepository.save(existingOrder);
+        eventPublisher.publishEvent(new OrderChangedEvent(parsedOrderId));
         log.info("Updated Order ID: {}", orderId);
         return orderMapper.toDto(updatedOrder);
     }
 
+    /**
+     * Brings the items of an order in line with the requested quantities, keyed by menu item: items whose menu item
+     * is gone are removed, changed quantities are updated in place and only new menu items are inserted. Unchanged
+     * items produce no statement at all.
+     *
+     * @return The number of items removed, updated or added.
+     */
+    private int applyItemChanges(OrderEntity order, List<MenuItem> menuItems, Map<String, Integer> quantities) {
+        Map<UUID, OrderItem> existingByMenuItem = new HashMap<>();
+        List<OrderItem> removed = new ArrayList<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            UUID menuItemId = orderItem.getMenuItem().getId();
+            if (!quantities.containsKey(menuItemId.toString()) || existingByMenuItem.putIfAbsent(menuItemId, orderItem) != null) {
+                removed.add(orderItem);
+            }
+        }
+        // Removed after the loop, since the set cannot change while it is being iterated
+        removed.forEach(order::removeOrderItem);
+
+        int changed = removed.size();
+        for (MenuItem menuItem : menuItems) {
+            Integer quantity = quantities.get(menuItem.getId().toString());
+            BigDecimal price = menuItem.getPrice().multiply(BigDecimal.valueOf(quantity));
+            OrderItem orderItem = existingByMenuItem.get(menuItem.getId());
+
+            if (orderItem == null) {
+                orderItem = new OrderItem();
+                orderItem.setMenuItem(menuItem);
+                orderItem.setQuantity(quantity);
+                orderItem.setPrice(price);
+                order.addOrderItem(orderItem);
+                changed++;
+            } else if (!orderItem.getQuantity().equals(quantity) || orderItem.getPrice().compareTo(price) != 0) {
+                order.changeOrderItem(orderItem, quantity, price);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
 }
@@ -0,0 +1,149 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.mapper.ArchivedReservationMapper;
+import com.mitar.dipl.model.dto.page.CursorPageDto;
+import com.mitar.dipl.model.dto.reservation.ArchivedReservationDto;
+import com.mitar.dipl.model.entity.ArchivedReservation;
+import com.mitar.dipl.repository.ArchivedReservationRepository;
+import com.mitar.dipl.service.ReservationArchiveService;
+import com.mitar.dipl.utils.KeysetCursor;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class ReservationArchiveServiceImpl implements ReservationArchiveService {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String ARCHIVED_COLUMNS = "id, reservation_time, number_of_guests, user_id, table_id, group_id, " +
+            "guest_name, guest_email, guest_phone, deleted";
+
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ArchivedReservationMapper archivedReservationMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public ReservationArchiveServiceImpl(ArchivedReservationRepository archivedReservationRepository,
+                                         ArchivedReservationMapper archivedReservationMapper,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${reservations.archive.retention:90d}") Duration retention,
+                                         @Value("${reservations.archive.batch-size:500}") int batchSize,
+                                         @Value("${reservations.archive.max-batches:200}") int maxBatches) {
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.archivedReservationMapper = archivedReservationMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Override
+    public CursorPageDto<ArchivedReservationDto> getArchivedReservations(LocalDateTime from, LocalDateTime to, String tableId,
+                                                                         String userId, String cursor, Integer limit) {
+        log.debug("Fetching archived reservations from {} to {} for table {} and user {} after cursor {}", from, to, tableId, userId, cursor);
+
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("End of the time window must be after its start.");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        UUID tableUUID = tableId != null && !tableId.isEmpty() ? UUIDUtils.parseUUID(tableId) : null;
+        UUID userUUID = userId != null && !userId.isEmpty() ? UUIDUtils.parseUUID(userId) : null;
+
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<ArchivedReservation> archived;
+        if (cursor == null || cursor.isEmpty()) {
+            archived = archivedReservationRepository.findPageInRange(from, to, tableUUID, userUUID, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            archived = archivedReservationRepository.findPageInRangeAfter(from, to, tableUUID, userUUID, after.time(), after.id(), page);
+        }
+
+        String nextCursor = null;
+        if (archived.size() > pageSize) {
+            archived = archived.subList(0, pageSize);
+            ArchivedReservation last = archived.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getReservationTime(), last.getId()).encode();
+        }
+
+        List<ArchivedReservationDto> archivedDtos = archived.stream()
+                .map(archivedReservationMapper::toDto)
+                .toList();
+        log.info("Fetched {} archived reservations from {} to {}.", archivedDtos.size(), from, to);
+        return new CursorPageDto<>(archivedDtos, nextCursor);
+    }
+
+    /**
+     * Runs in short transactions of {@code reservations.archive.batch-size} rows each, so the hot table is never
+     * locked for long, and stops after {@code reservations.archive.max-batches} to bound one run. Each batch
+     * locks its rows, copies them with {@code INSERT ... SELECT} and deletes them by primary key.
+     */
+    @Override
+    @Scheduled(cron = "${reservations.archive.cron:0 30 3 * * *}")
+    public int archiveReservations() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        log.info("Archiving reservations before {} and soft-deleted reservations.", cutoff);
+
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+        }
+
+        log.info("Archived {} reservations.", archived);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // Two queries instead of one OR, so each is a range scan on a prefix of idx_reservations_deleted_time_table
+        List<byte[]> ids = new ArrayList<>(jdbcTemplate.query(
+                "SELECT id FROM reservations WHERE deleted = true ORDER BY reservation_time LIMIT ? FOR UPDATE",
+                (resultSet, rowNumber) -> resultSet.getBytes(1),
+                batchSize));
+        if (ids.size() < batchSize) {
+            ids.addAll(jdbcTemplate.query(
+                    "SELECT id FROM reservations WHERE deleted = false AND reservation_time < ? ORDER BY reservation_time LIMIT ? FOR UPDATE",
+                    (resultSet, rowNumber) -> resultSet.getBytes(1),
+                    cutoff, batchSize - ids.size()));
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> insertArgs = new ArrayList<>(ids.size() + 1);
+        insertArgs.add(LocalDateTime.now());
+        insertArgs.addAll(ids);
+        jdbcTemplate.update("INSERT INTO reservations_archive (" + ARCHIVED_COLUMNS + ", archived_at) " +
+                "SELECT " + ARCHIVED_COLUMNS + ", ? FROM reservations WHERE id IN (" + placeholders + ")", insertArgs.toArray());
+        return jdbcTemplate.update("DELETE FROM reservations WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+}
@@ -0,0 +1,466 @@
+package com.mitar.dipl.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mitar.dipl.event.ReservationChangedEvent;
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.model.dto.reservation.ReservationBooking;
+import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationGuest;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.model.dto.reservation_import.ReservationImportErrorDto;
+import com.mitar.dipl.model.dto.reservation_import.ReservationImportResultDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.ReservationRepository;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.ReservationImportService;
+import com.mitar.dipl.service.reservation.ReservationHoldRegistry;
+import com.mitar.dipl.service.reservation.SlotCoverCounter;
+import com.mitar.dipl.service.reservation.TableBookingLock;
+import com.mitar.dipl.utils.GuestNormalizer;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.mitar.dipl.service.reservation.ReservationSchedule.*;
+
+@Service
+@Slf4j
+public class ReservationImportServiceImpl implements ReservationImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "tableId", "reservationTime", "numberOfGuests", "userId", "guestName", "guestEmail", "guestPhone");
+
+    private static final String INSERT_SQL = "INSERT INTO reservations (id, reservation_time, number_of_guests, user_id, table_id, " +
+            "guest_name, guest_email, guest_phone, guest_name_normalized, guest_email_normalized, guest_phone_normalized, deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private final ReservationRepository reservationRepository;
+    private final TableRepository tableRepository;
+    private final UserRepository userRepository;
+    private final TableBookingLock tableBookingLock;
+    private final ReservationHoldRegistry reservationHoldRegistry;
+    private final SlotCoverCounter slotCoverCounter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ReservationImportServiceImpl(ReservationRepository reservationRepository,
+                                        TableRepository tableRepository,
+                                        UserRepository userRepository,
+                                        TableBookingLock tableBookingLock,
+                                        ReservationHoldRegistry reservationHoldRegistry,
+                                        SlotCoverCounter slotCoverCounter,
+                                        JdbcTemplate jdbcTemplate,
+                                        ObjectMapper objectMapper,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${reservations.import.chunk-size:1000}") int chunkSize) {
+        this.reservationRepository = reservationRepository;
+        this.tableRepository = tableRepository;
+        this.userRepository = userRepository;
+        this.tableBookingLock = tableBookingLock;
+        this.reservationHoldRegistry = reservationHoldRegistry;
+        this.slotCoverCounter = slotCoverCounter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ReservationImportResultDto importReservations(InputStream input, Format format) {
+        log.info("Starting {} reservation import.", format);
+        long started = System.nanoTime();
+
+        Map<UUID, Integer> capacities = tableRepository.findAll().stream()
+                .collect(Collectors.toMap(TableEntity::getId, TableEntity::getCapacity));
+
+        ReservationImportResultDto result = new ReservationImportResultDto();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> columns = null;
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    throw new BadRequestException("The import is empty.");
+                }
+                columns = parseHeader(header);
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+
+                ImportRow row;
+                try {
+                    ReservationCreateDto dto = format == Format.CSV ? fromCsv(line, columns) : objectMapper.readValue(line, ReservationCreateDto.class);
+                    row = toRow(lineNumber, dto);
+                } catch (JsonProcessingException | RuntimeException e) {
+                    fail(result, lineNumber, "Could not parse row: " + e.getMessage());
+                    continue;
+                }
+
+                String validationError = validate(row, capacities);
+                if (validationError != null) {
+                    fail(result, lineNumber, validationError);
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, result);
+            }
+        } catch (IOException e) {
+            log.warn("Reservation import stream failed: {}", e.getMessage());
+            throw new BadRequestException("Could not read the import: " + e.getMessage());
+        }
+
+        log.info("Reservation import finished in {} ms: {} rows, {} imported, {} failed.",
+                (System.nanoTime() - started) / 1_000_000, result.getTotalRows(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Checks one chunk in a single sweep and inserts what passes, all in one transaction.
+     * <p>
+     * Rows are sorted by time and then by line, and the chunk's tables are locked. Existing reservations are loaded
+     * into a sorted set per table with one query per run of consecutive days in the chunk, so an unsorted file
+     * costs more queries but never loads the reservations in between the days it books. Each row is then checked
+     * against that set, which also holds the rows accepted before it, so overlaps within the file and with
+     * existing data are found the same way. The same goes for a user or guest booked twice at the same time, where
+     * the earlier line wins. Earlier chunks are already committed and show up in the queries.
+     */
+    private void importChunk(List<ImportRow> chunk, ReservationImportResultDto result) {
+        chunk.sort(Comparator.comparing(ImportRow::reservationTime).thenComparingLong(ImportRow::line));
+        List<ReservationImportErrorDto> chunkErrors = new ArrayList<>();
+
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                Set<UUID> tableIds = chunk.stream().map(ImportRow::tableId).collect(Collectors.toCollection(TreeSet::new));
+                tableBookingLock.lockAll(tableIds);
+
+                Map<UUID, TreeSet<LocalDateTime>> taken = loadTakenTimes(chunk);
+
+                Set<UUID> userIds = chunk.stream().map(ImportRow::userId).filter(Objects::nonNull).collect(Collectors.toSet());
+                Set<UUID> knownUserIds = userRepository.findAllById(userIds).stream().map(User::getId).collect(Collectors.toSet());
+                Set<String> booked = loadBookings(chunk, userIds);
+
+                List<ImportRow> accepted = new ArrayList<>();
+                for (ImportRow row : chunk) {
+                    String conflict = findConflict(row, taken, booked, knownUserIds);
+                    if (conflict != null) {
+                        chunkErrors.add(new ReservationImportErrorDto(row.line(), conflict));
+                        continue;
+                    }
+                    taken.computeIfAbsent(row.tableId(), id -> new TreeSet<>()).add(row.reservationTime());
+                    booked.add(bookingKey(row.userId(), row.guestEmail(), row.reservationTime()));
+                    accepted.add(row);
+                }
+
+                insert(accepted);
+                for (ImportRow row : accepted) {
+                    eventPublisher.publishEvent(ReservationChangedEvent.created(
+                            new ReservationSlot(row.id(), row.tableId(), row.reservationTime(), row.numberOfGuests()),
+                            new ReservationGuest(row.id(), row.reservationTime(), row.guestName(), row.guestEmail(), row.guestPhone())));
+                }
+                return accepted.size();
+            });
+
+            result.setImported(result.getImported() + (imported != null ? imported : 0));
+            chunkErrors.forEach(error -> fail(result, error.getRow(), error.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Reservation import chunk of {} rows failed.", chunk.size(), e);
+            chunk.forEach(row -> fail(result, row.line(), "Import of this row's chunk failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Loads the start times of existing reservations on the chunk's tables, one query per run of consecutive
+     * days. A conflict window never crosses midnight within business hours, so the runs cover every conflict.
+     */
+    private Map<UUID, TreeSet<LocalDateTime>> loadTakenTimes(List<ImportRow> chunk) {
+        TreeMap<LocalDate, List<ImportRow>> rowsByDay = chunk.stream()
+                .collect(Collectors.groupingBy(row -> row.reservationTime().toLocalDate(), TreeMap::new, Collectors.toList()));
+
+        Map<UUID, TreeSet<LocalDateTime>> taken = new HashMap<>();
+        List<ImportRow> run = new ArrayList<>();
+        LocalDate previousDay = null;
+        for (Map.Entry<LocalDate, List<ImportRow>> day : rowsByDay.entrySet()) {
+            if (previousDay != null && !day.getKey().equals(previousDay.plusDays(1))) {
+                loadTakenTimes(run, taken);
+                run.clear();
+            }
+            run.addAll(day.getValue());
+            previousDay = day.getKey();
+        }
+        loadTakenTimes(run, taken);
+        return taken;
+    }
+
+    private void loadTakenTimes(List<ImportRow> run, Map<UUID, TreeSet<LocalDateTime>> taken) {
+        Set<UUID> tableIds = run.stream().map(ImportRow::tableId).collect(Collectors.toSet());
+        LocalDateTime earliest = run.stream().map(ImportRow::reservationTime).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime latest = run.stream().map(ImportRow::reservationTime).max(Comparator.naturalOrder()).orElseThrow();
+        for (ReservationSlot slot : reservationRepository.findSlotsForTablesBetween(
+                tableIds, conflictWindowStart(earliest), conflictWindowEnd(latest))) {
+            taken.computeIfAbsent(slot.getTableId(), id -> new TreeSet<>()).add(slot.getReservationTime());
+        }
+    }
+
+    /**
+     * Loads which of the chunk's users and guests already have a reservation at one of the chunk's times, as
+     * {@link #bookingKey}s.
+     */
+    private Set<String> loadBookings(List<ImportRow> chunk, Set<UUID> userIds) {
+        Set<LocalDateTime> times = chunk.stream().map(ImportRow::reservationTime).collect(Collectors.toSet());
+        Set<String> guestEmails = chunk.stream()
+                .filter(row -> row.userId() == null)
+                .map(ImportRow::guestEmail)
+                .collect(Collectors.toSet());
+
+        List<ReservationBooking> bookings = new ArrayList<>();
+        if (!userIds.isEmpty()) {
+            bookings.addAll(reservationRepository.findUserBookingsAt(userIds, times));
+        }
+        if (!guestEmails.isEmpty()) {
+            bookings.addAll(reservationRepository.findGuestBookingsAt(guestEmails, times));
+        }
+
+        Set<String> booked = new HashSet<>();
+        for (ReservationBooking booking : bookings) {
+            booked.add(bookingKey(booking.getUserId(), booking.getGuestEmail(), booking.getReservationTime()));
+        }
+        return booked;
+    }
+
+    private String findConflict(ImportRow row, Map<UUID, TreeSet<LocalDateTime>> taken, Set<String> booked,
+                                Set<UUID> knownUserIds) {
+        if (row.userId() != null && !knownUserIds.contains(row.userId())) {
+            return "User not found with ID: " + row.userId();
+        }
+
+        if (booked.contains(bookingKey(row.userId(), row.guestEmail(), row.reservationTime()))) {
+            return row.userId() != null
+                    ? "User already has a reservation at the requested time."
+                    : "Guest with this email already has a reservation at the requested time.";
+        }
+
+        TreeSet<LocalDateTime> tableTimes = taken.get(row.tableId());
+        if (tableTimes != null) {
+            LocalDateTime nearest = tableTimes.ceiling(conflictWindowStart(row.reservationTime()));
+            if (nearest != null && !nearest.isAfter(conflictWindowEnd(row.reservationTime()))) {
+                return "Table is already reserved at the requested time.";
+            }
+        }
+
+        if (reservationHoldRegistry.hasConflict(row.tableId(), row.reservationTime(), null)) {
+            return "Table is held for another booking at the requested time.";
+        }
+
+        if (!slotCoverCounter.tryReserve(row.reservationTime(), row.numberOfGuests())) {
+            return "The kitchen is fully booked for arrivals at the requested time.";
+        }
+        return null;
+    }
+
+    private void insert(List<ImportRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setBytes(1, UUIDUtils.toBytes(row.id()));
+            statement.setObject(2, row.reservationTime());
+            statement.setInt(3, row.numberOfGuests());
+            statement.setBytes(4, UUIDUtils.toBytes(row.userId()));
+            statement.setBytes(5, UUIDUtils.toBytes(row.tableId()));
+            statement.setString(6, row.guestName());
+            statement.setString(7, row.guestEmail());
+            statement.setString(8, row.guestPhone());
+            statement.setString(9, GuestNormalizer.foldName(row.guestName()));
+            statement.setString(10, GuestNormalizer.normalizeEmail(row.guestEmail()));
+            statement.setString(11, GuestNormalizer.normalizePhone(row.guestPhone()));
+        });
+    }
+
+    /**
+     * Applies the same rules as a single booking that do not need the database.
+     *
+     * @return Error message if validation fails, otherwise null.
+     */
+    private static String validate(ImportRow row, Map<UUID, Integer> capacities) {
+        Integer capacity = capacities.get(row.tableId());
+        if (capacity == null) {
+            return "Table not found with ID: " + row.tableId();
+        }
+        if (row.numberOfGuests() < 1) {
+            return "There must be at least one guest.";
+        }
+        if (row.numberOfGuests() > capacity) {
+            return "Number of guests exceeds table capacity.";
+        }
+
+        LocalTime start = row.reservationTime().toLocalTime();
+        LocalTime end = start.plus(RESERVATION_DURATION).plus(BUFFER_DURATION);
+        if (start.isBefore(OPENING_TIME) || end.isAfter(CLOSING_TIME)) {
+            return "Reservation time is outside business hours.";
+        }
+
+        boolean hasGuestFields = isFilled(row.guestName()) || isFilled(row.guestEmail()) || isFilled(row.guestPhone());
+        boolean hasAllGuestFields = isFilled(row.guestName()) && isFilled(row.guestEmail()) && isFilled(row.guestPhone());
+        if (row.userId() == null ? !hasAllGuestFields : hasGuestFields) {
+            return "Either userId or guest fields must be filled, not both.";
+        }
+        return null;
+    }
+
+    private static ImportRow toRow(long line, ReservationCreateDto dto) {
+        if (dto.getTableId() == null || dto.getReservationTime() == null || dto.getNumberOfGuests() == null) {
+            throw new IllegalArgumentException("tableId, reservationTime and numberOfGuests are required");
+        }
+        return new ImportRow(
+                line,
+                UUID.randomUUID(),
+                UUIDUtils.parseUUID(dto.getTableId()),
+                dto.getReservationTime(),
+                dto.getNumberOfGuests(),
+                isFilled(dto.getUserId()) ? UUIDUtils.parseUUID(dto.getUserId()) : null,
+                emptyToNull(dto.getGuestName()),
+                emptyToNull(dto.getGuestEmail()),
+                emptyToNull(dto.getGuestPhone())
+        );
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 3)) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("CSV header must contain the columns " + String.join(", ", CSV_COLUMNS) + ".");
+            }
+        }
+        return columns;
+    }
+
+    private static ReservationCreateDto fromCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        ReservationCreateDto dto = new ReservationCreateDto();
+        dto.setTableId(column(values, columns, "tableId"));
+        String reservationTime = column(values, columns, "reservationTime");
+        try {
+            dto.setReservationTime(reservationTime != null ? LocalDateTime.parse(reservationTime) : null);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid reservationTime '" + reservationTime + "'");
+        }
+        String numberOfGuests = column(values, columns, "numberOfGuests");
+        dto.setNumberOfGuests(numberOfGuests != null ? Integer.valueOf(numberOfGuests) : null);
+        dto.setUserId(column(values, columns, "userId"));
+        dto.setGuestName(column(values, columns, "guestName"));
+        dto.setGuestEmail(column(values, columns, "guestEmail"));
+        dto.setGuestPhone(column(values, columns, "guestPhone"));
+        return dto;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        return emptyToNull(values.get(index).trim());
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with {@code ""} as an escaped quote.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static void fail(ReservationImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ReservationImportErrorDto(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Identifies who a reservation is for at a given time: the user if there is one, otherwise the guest email.
+     */
+    private static String bookingKey(UUID userId, String guestEmail, LocalDateTime reservationTime) {
+        return (userId != null ? "user:" + userId : "guest:" + guestEmail.toLowerCase(Locale.ROOT)) + "@" + reservationTime;
+    }
+
+    private static boolean isFilled(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private record ImportRow(long line, UUID id, UUID tableId, LocalDateTime reservationTime, int numberOfGuests,
+                             UUID userId, String guestName, String guestEmail, String guestPhone) {
+    }
+
+}
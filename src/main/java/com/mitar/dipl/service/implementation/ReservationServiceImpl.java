@@ -1,30 +1,55 @@
 package com.mitar.dipl.service.implementation;
 
+import com.mitar.dipl.event.ReservationChangedEvent;
 import com.mitar.dipl.exception.custom.BadRequestException;
 import com.mitar.dipl.exception.custom.ConflictException;
+import com.mitar.dipl.exception.custom.ReservationConflictException;
 import com.mitar.dipl.exception.custom.ResourceNotFoundException;
 import com.mitar.dipl.mapper.ReservationMapper;
+import com.mitar.dipl.model.dto.page.CursorPageDto;
+import com.mitar.dipl.model.dto.reservation.GuestDetails;
+import com.mitar.dipl.model.dto.reservation.ReservationAutoAssignDto;
 import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldConfirmDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldDto;
 import com.mitar.dipl.model.dto.reservation.ReservationDto;
+import com.mitar.dipl.model.dto.reservation.ReservationGuest;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
 import com.mitar.dipl.model.entity.Reservation;
 import com.mitar.dipl.model.entity.TableEntity;
 import com.mitar.dipl.model.entity.User;
 import com.mitar.dipl.repository.ReservationRepository;
 import com.mitar.dipl.repository.TableRepository;
 import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.AvailabilityService;
 import com.mitar.dipl.service.ReservationService;
+import com.mitar.dipl.service.reservation.GuestSearchIndex;
+import com.mitar.dipl.service.reservation.ReservationHoldRegistry;
+import com.mitar.dipl.service.reservation.ReservationIntervalIndex;
+import com.mitar.dipl.service.reservation.SlotBitmap;
+import com.mitar.dipl.service.reservation.SlotCoverCounter;
+import com.mitar.dipl.service.reservation.TableAssigner;
+import com.mitar.dipl.service.reservation.TableBookingLock;
+import com.mitar.dipl.utils.GuestNormalizer;
+import com.mitar.dipl.utils.KeysetCursor;
 import com.mitar.dipl.utils.UUIDUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
 
+import static com.mitar.dipl.service.reservation.ReservationSchedule.*;
+
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -35,12 +60,19 @@ public class ReservationServiceImpl implements ReservationService {
     private final UserRepository userRepository;
     private final TableRepository tableRepository;
     private final ReservationMapper reservationMapper;
-
-    private static final LocalTime OPENING_TIME = LocalTime.of(10, 0);
-    private static final LocalTime CLOSING_TIME = LocalTime.of(22, 0);
-    private static final Duration BUFFER_DURATION = Duration.ofMinutes(30);
-    private static final Duration RESERVATION_DURATION = Duration.ofHours(2);
-
+    private final ReservationIntervalIndex reservationIntervalIndex;
+    private final ReservationHoldRegistry reservationHoldRegistry;
+    private final SlotCoverCounter slotCoverCounter;
+    private final AvailabilityService availabilityService;
+    private final TableBookingLock tableBookingLock;
+    private final TableAssigner tableAssigner;
+    private final GuestSearchIndex guestSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int GUEST_SEARCH_LIMIT = 50;
+    private static final int MAX_ASSIGN_ATTEMPTS = 3;
 
     @Override
     public List<ReservationDto> getAllReservations() {
@@ -62,6 +94,43 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationDtos;
     }
 
+    @Override
+    public CursorPageDto<ReservationDto> getReservationsInRange(LocalDateTime from, LocalDateTime to, String tableId, String cursor, Integer limit) {
+        log.debug("Fetching reservations from {} to {} for table {} after cursor {}", from, to, tableId, cursor);
+
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("End of the time window must be after its start.");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        UUID tableUUID = tableId != null && !tableId.isEmpty() ? UUIDUtils.parseUUID(tableId) : null;
+
+        // One extra row tells whether another page follows without a count query
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<Reservation> reservations;
+        if (cursor == null || cursor.isEmpty()) {
+            reservations = reservationRepository.findPageInRange(from, to, tableUUID, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            reservations = reservationRepository.findPageInRangeAfter(from, to, tableUUID, after.time(), after.id(), page);
+        }
+
+        String nextCursor = null;
+        if (reservations.size() > pageSize) {
+            reservations = reservations.subList(0, pageSize);
+            Reservation last = reservations.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getReservationTime(), last.getId()).encode();
+        }
+
+        List<ReservationDto> reservationDtos = reservations.stream()
+                .map(reservationMapper::toDto)
+                .toList();
+        log.info("Fetched {} reservations from {} to {}.", reservationDtos.size(), from, to);
+        return new CursorPageDto<>(reservationDtos, nextCursor);
+    }
+
     @Override
     public ReservationDto getReservationById(String reservationId) {
         UUID reservationUUID = UUIDUtils.parseUUID(reservationId);
@@ -145,8 +214,58 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationDtos;
     }
 
+    @Override
+    public List<ReservationDto> searchGuests(String query) {
+        log.debug("Searching reservations for guest query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty.");
+        }
+
+        // Upcoming reservations come from the in-memory trigram index, history from the normalized prefix indexes
+        List<UUID> upcomingIds = guestSearchIndex.search(query, GUEST_SEARCH_LIMIT);
+        String phoneDigits = GuestNormalizer.isPhoneLike(query) ? GuestNormalizer.phoneDigits(query) : null;
+        List<Reservation> prefixMatches = reservationRepository.findByNormalizedGuestPrefix(
+                likePrefix(GuestNormalizer.foldName(query)),
+                likePrefix(GuestNormalizer.normalizeEmail(query)),
+                phoneDigits != null ? likePrefix("+" + phoneDigits) : null,
+                PageRequest.ofSize(GUEST_SEARCH_LIMIT)
+        );
+
+        // Upcoming hits first (soonest first), then the remaining prefix hits (most recent first)
+        Map<UUID, Reservation> byId = new HashMap<>();
+        prefixMatches.forEach(reservation -> byId.put(reservation.getId(), reservation));
+        List<UUID> missingIds = upcomingIds.stream().filter(id -> !byId.containsKey(id)).toList();
+        reservationRepository.findAllById(missingIds).forEach(reservation -> byId.put(reservation.getId(), reservation));
+
+        Map<UUID, Reservation> matches = new LinkedHashMap<>();
+        upcomingIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .forEach(reservation -> matches.put(reservation.getId(), reservation));
+        prefixMatches.forEach(reservation -> matches.putIfAbsent(reservation.getId(), reservation));
+
+        List<ReservationDto> reservationDtos = matches.values().stream()
+                .limit(GUEST_SEARCH_LIMIT)
+                .map(reservationMapper::toDto)
+                .toList();
+        log.info("Found {} reservations for guest query: {}", reservationDtos.size(), query);
+        return reservationDtos;
+    }
+
     @Override
     public ReservationDto createReservation(ReservationCreateDto reservationCreateDto) {
+        return createReservation(reservationCreateDto, null);
+    }
+
+    /**
+     * Creates a new reservation, optionally taking over the slot of a hold.
+     *
+     * @param reservationCreateDto The DTO containing reservation creation data.
+     * @param holdId The UUID of the hold being confirmed, or null.
+     * @return ReservationDto
+     */
+    private ReservationDto createReservation(ReservationCreateDto reservationCreateDto, UUID holdId) {
         log.info("Attempting to create reservation with data: {}", reservationCreateDto);
 
         String validationError = validateReservationData(reservationCreateDto.getReservationTime());
@@ -155,7 +274,8 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         UUID tableId = UUIDUtils.parseUUID(reservationCreateDto.getTableId());
-        TableEntity table = tableRepository.findById(tableId)
+        // Serializes bookings of this table until commit so the overlap check and the insert cannot interleave
+        TableEntity table = tableBookingLock.lock(tableId)
                 .orElseThrow(() -> {
                     log.warn("Table not found with ID: {}", reservationCreateDto.getTableId());
                     return new ResourceNotFoundException("Table not found with ID: " + reservationCreateDto.getTableId());
@@ -176,11 +296,19 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BadRequestException("Number of guests exceeds table capacity.");
         }
 
-        Reservation reservation = setReservation(reservationCreateDto, table, user);
+        Reservation reservation = setReservation(reservationCreateDto, reservationCreateDto.getReservationTime(),
+                reservationCreateDto.getNumberOfGuests(), table, user);
 
         if (isOverlappingReservation(reservation)) {
             log.warn("Table {} is already reserved at {}", tableId, reservation.getReservationTime());
-            throw new ConflictException("Table is already reserved at the requested time.");
+            throw tableConflict("Table is already reserved at the requested time.", tableId,
+                    reservation.getReservationTime(), reservation.getNumberOfGuests());
+        }
+
+        if (reservationHoldRegistry.hasConflict(tableId, reservation.getReservationTime(), holdId)) {
+            log.warn("Table {} is held for another booking at {}", tableId, reservation.getReservationTime());
+            throw tableConflict("Table is held for another booking at the requested time.", tableId,
+                    reservation.getReservationTime(), reservation.getNumberOfGuests());
         }
 
         if (user != null) {
@@ -195,29 +323,169 @@ public class ReservationServiceImpl implements ReservationService {
             }
         }
 
+        if (!slotCoverCounter.tryReserve(reservation.getReservationTime(), reservation.getNumberOfGuests())) {
+            log.warn("Slot at {} has no covers left for {} guests", reservation.getReservationTime(), reservation.getNumberOfGuests());
+            throw new ConflictException("The kitchen is fully booked for arrivals at the requested time.");
+        }
+
         if (user != null) {
             user.addReservation(reservation);
         }
         table.addReservation(reservation);
 
         Reservation savedReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.created(toSlot(savedReservation), toGuest(savedReservation)));
+        if (holdId != null) {
+            // The hold keeps blocking the slot until the reservation row is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reservationHoldRegistry.convert(holdId);
+                }
+            });
+        }
         log.info("Reservation created successfully with ID: {}", savedReservation.getId());
 
         return reservationMapper.toDto(savedReservation);
     }
 
+    @Override
+    public List<ReservationDto> autoAssignReservation(ReservationAutoAssignDto reservationAutoAssignDto) {
+        log.info("Attempting to auto-assign reservation with data: {}", reservationAutoAssignDto);
+
+        LocalDateTime reservationTime = reservationAutoAssignDto.getReservationTime();
+        int numberOfGuests = reservationAutoAssignDto.getNumberOfGuests();
+
+        String validationError = validateReservationData(reservationTime);
+        if (validationError != null) {
+            throw new BadRequestException(validationError);
+        }
+
+        User user = null;
+        if (reservationAutoAssignDto.getUserId() != null && !reservationAutoAssignDto.getUserId().isEmpty()) {
+            UUID userId = UUIDUtils.parseUUID(reservationAutoAssignDto.getUserId());
+            user = userRepository.findById(userId)
+                    .orElseThrow(() -> {
+                        log.warn("User not found with ID: {}", reservationAutoAssignDto.getUserId());
+                        return new ResourceNotFoundException("User not found with ID: " + reservationAutoAssignDto.getUserId());
+                    });
+            if (reservationRepository.existsByUser_IdAndReservationTime(userId, reservationTime)) {
+                log.warn("User {} already has a reservation at {}", userId, reservationTime);
+                throw new ConflictException("User already has a reservation at the requested time.");
+            }
+        } else if (reservationRepository.existsByGuestEmailAndReservationTime(reservationAutoAssignDto.getGuestEmail(), reservationTime)) {
+            log.warn("Guest with email {} already has a reservation at {}", reservationAutoAssignDto.getGuestEmail(), reservationTime);
+            throw new ConflictException("Guest with this email already has a reservation at the requested time.");
+        }
+
+        Set<UUID> lostTableIds = new HashSet<>();
+        for (int attempt = 0; attempt < MAX_ASSIGN_ATTEMPTS; attempt++) {
+            List<TableEntity> freeTables = findFreeTables(reservationTime).stream()
+                    .filter(table -> !lostTableIds.contains(table.getId()))
+                    .toList();
+            List<TableEntity> chosenTables = tableAssigner.assign(freeTables, numberOfGuests);
+            if (chosenTables.isEmpty()) {
+                log.warn("No free table or table combination for {} guests at {}", numberOfGuests, reservationTime);
+                throw new ConflictException("No table is free for " + numberOfGuests + " guests at the requested time.");
+            }
+
+            // The choice was made without locks; confirm it under the table locks before booking
+            tableBookingLock.lockAll(chosenTables.stream().map(TableEntity::getId).toList());
+            List<UUID> takenTableIds = chosenTables.stream()
+                    .map(TableEntity::getId)
+                    .filter(tableId -> isOverlappingReservation(tableId, reservationTime)
+                            || reservationHoldRegistry.hasConflict(tableId, reservationTime, null))
+                    .toList();
+            if (takenTableIds.isEmpty()) {
+                return bookTables(reservationAutoAssignDto, chosenTables, user);
+            }
+
+            log.info("Tables {} were booked concurrently, retrying assignment.", takenTableIds);
+            lostTableIds.addAll(takenTableIds);
+        }
+
+        throw new ConflictException("The tables are busy with other bookings, please try again.");
+    }
+
+    /**
+     * Finds the available tables that have no conflicting reservation at the given time.
+     *
+     * @param reservationTime The requested start time.
+     * @return List of free tables.
+     */
+    private List<TableEntity> findFreeTables(LocalDateTime reservationTime) {
+        List<TableEntity> tables = tableRepository.findAllByIsAvailableTrue().stream()
+                .filter(table -> !reservationHoldRegistry.hasConflict(table.getId(), reservationTime, null))
+                .toList();
+
+        if (reservationIntervalIndex.isReady()) {
+            return tables.stream()
+                    .filter(table -> !reservationIntervalIndex.hasConflict(table.getId(), reservationTime, null))
+                    .toList();
+        }
+
+        Set<UUID> bookedTableIds = reservationRepository.findBookedTableIds(
+                conflictWindowStart(reservationTime),
+                conflictWindowEnd(reservationTime)
+        );
+        return tables.stream()
+                .filter(table -> !bookedTableIds.contains(table.getId()))
+                .toList();
+    }
+
+    /**
+     * Books the locked tables, seating guests table by table in table number order.
+     *
+     * @param reservationAutoAssignDto The DTO containing the reservation data.
+     * @param tables                   The tables to book.
+     * @param user                     The user entity, or null for a guest reservation.
+     * @return List of ReservationDto
+     */
+    private List<ReservationDto> bookTables(ReservationAutoAssignDto reservationAutoAssignDto, List<TableEntity> tables, User user) {
+        UUID groupId = tables.size() > 1 ? UUID.randomUUID() : null;
+        int remainingGuests = reservationAutoAssignDto.getNumberOfGuests();
+
+        List<ReservationDto> reservationDtos = new ArrayList<>();
+        for (TableEntity table : tables) {
+            int seatedGuests = Math.min(remainingGuests, table.getCapacity());
+            remainingGuests -= seatedGuests;
+
+            Reservation reservation = setReservation(reservationAutoAssignDto, reservationAutoAssignDto.getReservationTime(),
+                    seatedGuests, table, user);
+            reservation.setGroupId(groupId);
+            if (!slotCoverCounter.tryReserve(reservation.getReservationTime(), seatedGuests)) {
+                log.warn("Slot at {} has no covers left for {} guests", reservation.getReservationTime(), reservationAutoAssignDto.getNumberOfGuests());
+                throw new ConflictException("The kitchen is fully booked for arrivals at the requested time.");
+            }
+            if (user != null) {
+                user.addReservation(reservation);
+            }
+            table.addReservation(reservation);
+
+            Reservation savedReservation = reservationRepository.save(reservation);
+            eventPublisher.publishEvent(ReservationChangedEvent.created(toSlot(savedReservation), toGuest(savedReservation)));
+            log.info("Reservation auto-assigned to table {} with ID: {}", table.getTableNumber(), savedReservation.getId());
+            reservationDtos.add(reservationMapper.toDto(savedReservation));
+        }
+
+        return reservationDtos;
+    }
+
     /**
      * Creates a new reservation.
      *
-     * @param reservationCreateDto The DTO containing reservation creation data.
+     * @param guestDetails The user or guest the reservation is for.
+     * @param reservationTime The reservation time.
+     * @param numberOfGuests The number of guests seated at the table.
      * @param table The table entity.
      * @param user The user entity.
-     * @return ReservationDto
+     * @return Reservation
      */
-    private static Reservation setReservation(ReservationCreateDto reservationCreateDto, TableEntity table, User user) {
+    private static Reservation setReservation(GuestDetails guestDetails, LocalDateTime reservationTime, int numberOfGuests,
+                                              TableEntity table, User user) {
         Reservation reservation = new Reservation();
-        reservation.setReservationTime(reservationCreateDto.getReservationTime());
-        reservation.setNumberOfGuests(reservationCreateDto.getNumberOfGuests());
+        reservation.setReservationTime(reservationTime);
+        reservation.setNumberOfGuests(numberOfGuests);
         reservation.setTable(table);
 
         if (user != null) {
@@ -226,14 +494,91 @@ public class ReservationServiceImpl implements ReservationService {
             reservation.setGuestEmail(null);
             reservation.setGuestName(null);
         } else {
-            reservation.setGuestPhone(reservationCreateDto.getGuestPhone());
-            reservation.setGuestEmail(reservationCreateDto.getGuestEmail());
-            reservation.setGuestName(reservationCreateDto.getGuestName());
+            reservation.setGuestPhone(guestDetails.getGuestPhone());
+            reservation.setGuestEmail(guestDetails.getGuestEmail());
+            reservation.setGuestName(guestDetails.getGuestName());
         }
         return reservation;
     }
 
 
+    @Override
+    public ReservationHoldDto placeHold(ReservationHoldCreateDto reservationHoldCreateDto) {
+        log.info("Attempting to place hold with data: {}", reservationHoldCreateDto);
+
+        LocalDateTime reservationTime = reservationHoldCreateDto.getReservationTime();
+        String validationError = validateReservationData(reservationTime);
+        if (validationError != null) {
+            throw new BadRequestException(validationError);
+        }
+
+        UUID tableId = UUIDUtils.parseUUID(reservationHoldCreateDto.getTableId());
+        // Holds are placed under the same table lock as bookings, so neither can slip past the other's check
+        TableEntity table = tableBookingLock.lock(tableId)
+                .orElseThrow(() -> {
+                    log.warn("Table not found with ID: {}", reservationHoldCreateDto.getTableId());
+                    return new ResourceNotFoundException("Table not found with ID: " + reservationHoldCreateDto.getTableId());
+                });
+
+        if (reservationHoldCreateDto.getNumberOfGuests() > table.getCapacity()) {
+            log.warn("Number of guests {} exceeds table capacity {}.", reservationHoldCreateDto.getNumberOfGuests(), table.getCapacity());
+            throw new BadRequestException("Number of guests exceeds table capacity.");
+        }
+
+        if (isOverlappingReservation(tableId, reservationTime)) {
+            log.warn("Table {} is already reserved at {}", tableId, reservationTime);
+            throw tableConflict("Table is already reserved at the requested time.", tableId,
+                    reservationTime, reservationHoldCreateDto.getNumberOfGuests());
+        }
+
+        if (reservationHoldRegistry.hasConflict(tableId, reservationTime, null)) {
+            log.warn("Table {} is held for another booking at {}", tableId, reservationTime);
+            throw tableConflict("Table is held for another booking at the requested time.", tableId,
+                    reservationTime, reservationHoldCreateDto.getNumberOfGuests());
+        }
+
+        ReservationHoldRegistry.Hold hold = reservationHoldRegistry.place(tableId, reservationTime, reservationHoldCreateDto.getNumberOfGuests());
+        log.info("Hold placed successfully with ID: {}", hold.id());
+        return toHoldDto(hold);
+    }
+
+    @Override
+    public ReservationDto confirmHold(String holdId, ReservationHoldConfirmDto reservationHoldConfirmDto) {
+        UUID uuid = UUIDUtils.parseUUID(holdId);
+        log.info("Attempting to confirm hold with ID: {}", uuid);
+
+        ReservationHoldRegistry.Hold hold = reservationHoldRegistry.find(uuid)
+                .orElseThrow(() -> {
+                    log.warn("Hold not found or expired with ID: {}", holdId);
+                    return new ResourceNotFoundException("Hold not found or expired with ID: " + holdId);
+                });
+
+        ReservationCreateDto reservationCreateDto = new ReservationCreateDto();
+        reservationCreateDto.setTableId(hold.tableId().toString());
+        reservationCreateDto.setReservationTime(hold.reservationTime());
+        reservationCreateDto.setNumberOfGuests(hold.numberOfGuests());
+        reservationCreateDto.setUserId(reservationHoldConfirmDto.getUserId());
+        reservationCreateDto.setGuestName(reservationHoldConfirmDto.getGuestName());
+        reservationCreateDto.setGuestEmail(reservationHoldConfirmDto.getGuestEmail());
+        reservationCreateDto.setGuestPhone(reservationHoldConfirmDto.getGuestPhone());
+
+        return createReservation(reservationCreateDto, hold.id());
+    }
+
+    @Override
+    public String releaseHold(String holdId) {
+        UUID uuid = UUIDUtils.parseUUID(holdId);
+        log.debug("Attempting to release hold with ID: {}", uuid);
+
+        if (!reservationHoldRegistry.release(uuid)) {
+            log.warn("Hold not found or expired with ID: {}", holdId);
+            throw new ResourceNotFoundException("Hold not found or expired with ID: " + holdId);
+        }
+
+        log.info("Hold released successfully with ID: {}", holdId);
+        return "Hold released successfully.";
+    }
+
     @Override
     public String deleteReservation(String reservationId) {
         UUID uuid = UUIDUtils.parseUUID(reservationId);
@@ -250,16 +595,13 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BadRequestException("Reservation is already deleted.");
         }
 
-        reservation.setDeleted(true);
-
-        if (reservation.getUser() != null)
-            reservation.getUser().removeReservation(reservation);
-
-        if (reservation.getTable() != null)
-            reservation.getTable().removeReservation(reservation);
-
+        ReservationSlot previousSlot = toSlot(reservation);
 
+        // A soft delete only flips the flag; the table and user collections are never loaded for it
+        reservation.setDeleted(true);
         reservationRepository.save(reservation);
+        slotCoverCounter.releaseAfterCommit(previousSlot.getReservationTime(), previousSlot.getNumberOfGuests());
+        eventPublisher.publishEvent(ReservationChangedEvent.deleted(previousSlot));
         log.info("Reservation soft-deleted successfully with ID: {}", reservationId);
         return "Reservation deleted successfully.";
     }
@@ -286,17 +628,15 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BadRequestException(validationError);
         }
 
-        TableEntity newTable = existingReservation.getTable();
+        UUID newTableId = existingReservation.getTable().getId();
         if (reservationCreateDto.getTableId() != null && !reservationCreateDto.getTableId().isEmpty()) {
-            UUID newTableId = UUIDUtils.parseUUID(reservationCreateDto.getTableId());
-            if (!existingReservation.getTable().getId().equals(newTableId)) {
-                newTable = tableRepository.findById(newTableId)
-                        .orElseThrow(() -> {
-                            log.warn("Table not found with ID: {}", reservationCreateDto.getTableId());
-                            return new ResourceNotFoundException("Table not found with ID: " + reservationCreateDto.getTableId());
-                        });
-            }
+            newTableId = UUIDUtils.parseUUID(reservationCreateDto.getTableId());
         }
+        TableEntity newTable = tableBookingLock.lock(newTableId)
+                .orElseThrow(() -> {
+                    log.warn("Table not found with ID: {}", reservationCreateDto.getTableId());
+                    return new ResourceNotFoundException("Table not found with ID: " + reservationCreateDto.getTableId());
+                });
 
         User newUser = existingReservation.getUser();
         if (reservationCreateDto.getUserId() != null && !reservationCreateDto.getUserId().isEmpty()) {
@@ -327,6 +667,11 @@ public class ReservationServiceImpl implements ReservationService {
             throw new ConflictException("Table is already reserved at the requested time.");
         }
 
+        if (reservationHoldRegistry.hasConflict(newTable.getId(), reservationCreateDto.getReservationTime(), null)) {
+            log.warn("Table {} is held for another booking at {}", newTable.getId(), reservationCreateDto.getReservationTime());
+            throw new ConflictException("Table is held for another booking at the requested time.");
+        }
+
         if (newUser != null) {
             if (hasUserExistingReservation(reservationCreateDto.getReservationTime(), newUser.getId(), uuid)) {
                 log.warn("User {} already has a reservation at {}", newUser.getId(), reservationCreateDto.getReservationTime());
@@ -339,6 +684,13 @@ public class ReservationServiceImpl implements ReservationService {
             }
         }
 
+        ReservationSlot previousSlot = toSlot(existingReservation);
+
+        if (!reserveCoversForUpdate(previousSlot, reservationCreateDto.getReservationTime(), reservationCreateDto.getNumberOfGuests())) {
+            log.warn("Slot at {} has no covers left for {} guests", reservationCreateDto.getReservationTime(), reservationCreateDto.getNumberOfGuests());
+            throw new ConflictException("The kitchen is fully booked for arrivals at the requested time.");
+        }
+
         if (newUser != null) {
             if (existingReservation.getUser() != null && !existingReservation.getUser().getId().equals(newUser.getId())) {
                 existingReservation.getUser().removeReservation(existingReservation);
@@ -360,7 +712,6 @@ public class ReservationServiceImpl implements ReservationService {
 
         if (!existingReservation.getTable().getId().equals(newTable.getId())) {
             existingReservation.getTable().removeReservation(existingReservation);
-            existingReservation.setTable(newTable);
             newTable.addReservation(existingReservation);
         }
 
@@ -368,11 +719,68 @@ public class ReservationServiceImpl implements ReservationService {
         existingReservation.setNumberOfGuests(reservationCreateDto.getNumberOfGuests());
 
         Reservation updatedReservation = reservationRepository.save(existingReservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.updated(previousSlot, toSlot(updatedReservation), toGuest(updatedReservation)));
         log.info("Reservation updated successfully with ID: {}", reservationId);
 
         return reservationMapper.toDto(updatedReservation);
     }
 
+    /**
+     * Builds the conflict for a taken table, carrying the nearest bookable alternatives.
+     *
+     * @param message         The conflict message.
+     * @param tableId         The UUID of the requested table.
+     * @param reservationTime The requested time.
+     * @param numberOfGuests  The party size.
+     * @return ReservationConflictException
+     */
+    private ReservationConflictException tableConflict(String message, UUID tableId, LocalDateTime reservationTime, int numberOfGuests) {
+        return new ReservationConflictException(message, availabilityService.findAlternatives(tableId, reservationTime, numberOfGuests));
+    }
+
+    /**
+     * Moves a reservation's covers to its new slot and size. Within the same slot only the difference is taken
+     * or returned, so shrinking or keeping a party never fails on a full slot.
+     *
+     * @param previousSlot   The reservation before the update.
+     * @param newTime        The new reservation time.
+     * @param newGuests      The new number of guests.
+     * @return True if the new slot had room, otherwise false.
+     */
+    private boolean reserveCoversForUpdate(ReservationSlot previousSlot, LocalDateTime newTime, int newGuests) {
+        LocalDateTime previousTime = previousSlot.getReservationTime();
+        int previousGuests = previousSlot.getNumberOfGuests();
+
+        boolean sameSlot = previousTime.toLocalDate().equals(newTime.toLocalDate())
+                && SlotBitmap.slotContaining(previousTime.toLocalTime()) == SlotBitmap.slotContaining(newTime.toLocalTime());
+        if (sameSlot) {
+            if (newGuests > previousGuests) {
+                return slotCoverCounter.tryReserve(newTime, newGuests - previousGuests);
+            }
+            slotCoverCounter.releaseAfterCommit(previousTime, previousGuests - newGuests);
+            return true;
+        }
+
+        if (!slotCoverCounter.tryReserve(newTime, newGuests)) {
+            return false;
+        }
+        slotCoverCounter.releaseAfterCommit(previousTime, previousGuests);
+        return true;
+    }
+
+    /**
+     * Escapes LIKE wildcards in a value and turns it into a prefix pattern.
+     *
+     * @param value The normalized value, or null.
+     * @return LIKE pattern, or null if the value is null.
+     */
+    private static String likePrefix(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     // ------------------- Private Validation Methods -------------------
 
     /**
@@ -406,15 +814,28 @@ public class ReservationServiceImpl implements ReservationService {
      * @return True if overlapping exists, otherwise false.
      */
     private boolean isOverlappingReservation(Reservation reservation) {
-        UUID tableId = reservation.getTable().getId();
-        LocalDateTime requestedStart = reservation.getReservationTime();
-        LocalDateTime requestedEnd = requestedStart.plus(RESERVATION_DURATION).plus(BUFFER_DURATION);
+        return isOverlappingReservation(reservation.getTable().getId(), reservation.getReservationTime());
+    }
+
+    /**
+     * Checks if a reservation on the table starting at the given time would overlap existing reservations.
+     *
+     * @param tableId        The UUID of the table.
+     * @param requestedStart The requested start time.
+     * @return True if overlapping exists, otherwise false.
+     */
+    private boolean isOverlappingReservation(UUID tableId, LocalDateTime requestedStart) {
+        // A conflict in the index is enough to refuse. "Free" is always confirmed by the query, which runs under the
+        // table's row lock and also sees bookings other application nodes have committed
+        if (reservationIntervalIndex.canReportConflicts(requestedStart)
+                && reservationIntervalIndex.hasConflict(tableId, requestedStart, null)) {
+            return true;
+        }
 
-        // Check for overlapping reservations within the reservation duration and buffer
         return reservationRepository.existsByTable_IdAndReservationTimeBetween(
                 tableId,
-                requestedStart.minus(RESERVATION_DURATION).minus(BUFFER_DURATION),
-                requestedEnd
+                conflictWindowStart(requestedStart),
+                conflictWindowEnd(requestedStart)
         );
     }
 
@@ -428,13 +849,17 @@ public class ReservationServiceImpl implements ReservationService {
     private boolean isOverlappingReservation(Reservation reservation, UUID excludeResId) {
         UUID tableId = reservation.getTable().getId();
         LocalDateTime requestedStart = reservation.getReservationTime();
-        LocalDateTime requestedEnd = requestedStart.plus(RESERVATION_DURATION).plus(BUFFER_DURATION);
 
-        // Check for overlapping reservations within the reservation duration and buffer, excluding current reservation
+        // Same as above, excluding the reservation being updated
+        if (reservationIntervalIndex.canReportConflicts(requestedStart)
+                && reservationIntervalIndex.hasConflict(tableId, requestedStart, excludeResId)) {
+            return true;
+        }
+
         return reservationRepository.existsByTable_IdAndReservationTimeBetweenAndIdNot(
                 tableId,
-                requestedStart.minus(RESERVATION_DURATION).minus(BUFFER_DURATION),
-                requestedEnd,
+                conflictWindowStart(requestedStart),
+                conflictWindowEnd(requestedStart),
                 excludeResId
         );
     }
@@ -486,4 +911,51 @@ public class ReservationServiceImpl implements ReservationService {
         LocalDateTime reservationTime = reservation.getReservationTime();
         return reservationRepository.existsByGuestEmailAndReservationTime(guestEmail, reservationTime);
     }
+
+    /**
+     * Builds the scheduling view of a reservation used by change events.
+     *
+     * @param reservation The reservation entity.
+     * @return ReservationSlot
+     */
+    private static ReservationSlot toSlot(Reservation reservation) {
+        return new ReservationSlot(
+                reservation.getId(),
+                reservation.getTable().getId(),
+                reservation.getReservationTime(),
+                reservation.getNumberOfGuests()
+        );
+    }
+
+    /**
+     * Builds the response view of a hold.
+     *
+     * @param hold The hold.
+     * @return ReservationHoldDto
+     */
+    private static ReservationHoldDto toHoldDto(ReservationHoldRegistry.Hold hold) {
+        ReservationHoldDto dto = new ReservationHoldDto();
+        dto.setId(hold.id().toString());
+        dto.setTableId(hold.tableId().toString());
+        dto.setReservationTime(hold.reservationTime());
+        dto.setNumberOfGuests(hold.numberOfGuests());
+        dto.setExpiresAt(hold.expiresAt());
+        return dto;
+    }
+
+    /**
+     * Builds the guest view of a reservation used by change events.
+     *
+     * @param reservation The reservation entity.
+     * @return ReservationGuest
+     */
+    private static ReservationGuest toGuest(Reservation reservation) {
+        return new ReservationGuest(
+                reservation.getId(),
+                reservation.getReservationTime(),
+                reservation.getGuestName(),
+                reservation.getGuestEmail(),
+                reservation.getGuestPhone()
+        );
+    }
 }
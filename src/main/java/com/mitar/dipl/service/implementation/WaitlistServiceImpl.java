@@ -0,0 +1,157 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.ResourceNotFoundException;
+import com.mitar.dipl.mapper.WaitlistMapper;
+import com.mitar.dipl.model.dto.waitlist.WaitlistCreateDto;
+import com.mitar.dipl.model.dto.waitlist.WaitlistDto;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.model.entity.WaitlistEntry;
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.repository.WaitlistRepository;
+import com.mitar.dipl.service.WaitlistService;
+import com.mitar.dipl.service.reservation.SlotBitmap;
+import com.mitar.dipl.service.reservation.WaitlistIndex;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final WaitlistMapper waitlistMapper;
+    private final WaitlistIndex waitlistIndex;
+
+    @Override
+    public List<WaitlistDto> getAllEntries() {
+        log.info("Fetching all waitlist entries.");
+        List<WaitlistDto> waitlistDtos = waitlistRepository.findAll().stream()
+                .map(waitlistMapper::toDto)
+                .toList();
+        log.info("Fetched {} waitlist entries.", waitlistDtos.size());
+        return waitlistDtos;
+    }
+
+    @Override
+    public WaitlistDto getEntryById(String entryId) {
+        UUID parsedEntryId = UUIDUtils.parseUUID(entryId);
+        log.debug("Fetching waitlist entry with ID: {}", parsedEntryId);
+
+        WaitlistEntry entry = waitlistRepository.findById(parsedEntryId)
+                .orElseThrow(() -> {
+                    log.warn("Waitlist entry not found with ID: {}", entryId);
+                    return new ResourceNotFoundException("Waitlist entry not found with ID: " + entryId);
+                });
+
+        log.info("Retrieved waitlist entry ID: {}", entryId);
+        return waitlistMapper.toDto(entry);
+    }
+
+    @Override
+    public List<WaitlistDto> getEntriesByUserId(String userId) {
+        UUID parsedUserId = UUIDUtils.parseUUID(userId);
+        log.debug("Fetching waitlist entries for user ID: {}", parsedUserId);
+
+        List<WaitlistDto> waitlistDtos = waitlistRepository.findAllByUser_Id(parsedUserId).stream()
+                .map(waitlistMapper::toDto)
+                .toList();
+        log.info("Fetched {} waitlist entries for user ID: {}", waitlistDtos.size(), userId);
+        return waitlistDtos;
+    }
+
+    @Override
+    public WaitlistDto createEntry(WaitlistCreateDto waitlistCreateDto) {
+        log.info("Attempting to create waitlist entry with data: {}", waitlistCreateDto);
+
+        LocalDateTime requestedTime = waitlistCreateDto.getRequestedTime();
+        if (!requestedTime.toLocalDate().isAfter(LocalDate.now())) {
+            throw new BadRequestException("Waitlist can't be joined for today or past dates.");
+        }
+        int slot = SlotBitmap.slotOf(requestedTime.toLocalTime());
+        if (slot < 0 || (SlotBitmap.BOOKABLE_STARTS & (1L << slot)) == 0) {
+            throw new BadRequestException("Requested time must be a bookable 15-minute slot within business hours.");
+        }
+
+        WaitlistEntry entry = waitlistMapper.toEntity(waitlistCreateDto);
+        if (waitlistCreateDto.getUserId() != null && !waitlistCreateDto.getUserId().isEmpty()) {
+            UUID userId = UUIDUtils.parseUUID(waitlistCreateDto.getUserId());
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> {
+                        log.warn("User not found with ID: {}", waitlistCreateDto.getUserId());
+                        return new ResourceNotFoundException("User not found with ID: " + waitlistCreateDto.getUserId());
+                    });
+            entry.setUser(user);
+            entry.setGuestName(null);
+            entry.setGuestEmail(null);
+            entry.setGuestPhone(null);
+        }
+
+        WaitlistEntry savedEntry = waitlistRepository.save(entry);
+        afterCommit(() -> waitlistIndex.add(savedEntry.getId(), savedEntry.getRequestedTime(), savedEntry.getNumberOfGuests()));
+        log.info("Waitlist entry created successfully with ID: {}", savedEntry.getId());
+
+        return waitlistMapper.toDto(savedEntry);
+    }
+
+    @Override
+    public String cancelEntry(String entryId) {
+        UUID parsedEntryId = UUIDUtils.parseUUID(entryId);
+        log.debug("Attempting to cancel waitlist entry with ID: {}", parsedEntryId);
+
+        WaitlistEntry entry = waitlistRepository.findById(parsedEntryId)
+                .orElseThrow(() -> {
+                    log.warn("Waitlist entry not found for cancellation with ID: {}", entryId);
+                    return new ResourceNotFoundException("Waitlist entry not found with ID: " + entryId);
+                });
+
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            log.warn("Waitlist entry ID {} is no longer waiting ({}).", entryId, entry.getStatus());
+            throw new BadRequestException("Only waiting entries can be cancelled.");
+        }
+
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        waitlistRepository.save(entry);
+        afterCommit(() -> waitlistIndex.remove(parsedEntryId));
+        log.info("Waitlist entry cancelled successfully with ID: {}", entryId);
+        return "Waitlist entry cancelled successfully.";
+    }
+
+    /**
+     * Expires entries whose requested time has passed without a table being offered.
+     */
+    @Scheduled(cron = "${waitlist.expiry-cron:0 0 * * * *}")
+    public void expirePastEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = waitlistRepository.expireBefore(List.of(WaitlistStatus.WAITING), WaitlistStatus.EXPIRED, now);
+        waitlistIndex.evictBefore(now);
+        if (expired > 0) {
+            log.info("Expired {} waitlist entries.", expired);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
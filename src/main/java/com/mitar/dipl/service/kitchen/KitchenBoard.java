@@ -0,0 +1,229 @@
+package com.mitar.dipl.service.kitchen;
+
+import com.mitar.dipl.event.OrderChangedEvent;
+import com.mitar.dipl.model.dto.kitchen.KitchenOrderDto;
+import com.mitar.dipl.model.dto.kitchen.KitchenOrderItemDto;
+import com.mitar.dipl.model.entity.OrderEntity;
+import com.mitar.dipl.model.entity.enums.Status;
+import com.mitar.dipl.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory board of open (PENDING and IN_PROGRESS) orders, pushed to kitchen screens over Server-Sent Events.
+ * <p>
+ * A subscriber first gets a {@code snapshot} of the whole board and then one small {@code order-updated} or
+ * {@code order-removed} event per change, numbered so a screen can tell when it missed one and resubscribe.
+ * Changes arrive as {@link OrderChangedEvent}s; after commit the changed order is read once and broadcast on a
+ * single sender thread, which keeps events in order and off request threads. Emitters use asynchronous
+ * requests, so open connections hold no servlet thread.
+ * <p>
+ * The sender never writes to a connection itself: each screen has a queue of at most
+ * {@code kitchen.board.subscriber-buffer} events, written out by a push task on a fixed pool of
+ * {@code kitchen.board.push-threads} threads, so the number of threads blocked on slow screens stays bounded
+ * however many are connected. A screen that falls that far behind is disconnected, and resubscribes to a fresh
+ * snapshot, instead of holding up the others.
+ */
+@Component
+@Slf4j
+public class KitchenBoard {
+
+    public static final List<Status> OPEN_STATUSES = List.of(Status.PENDING, Status.IN_PROGRESS);
+
+    private final OrderRepository orderRepository;
+    private final Duration emitterTimeout;
+    private final int subscriberBuffer;
+
+    private final Map<UUID, KitchenOrderDto> orders = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-board-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService pusher;
+
+    public KitchenBoard(OrderRepository orderRepository,
+                        @Value("${kitchen.board.emitter-timeout:30m}") Duration emitterTimeout,
+                        @Value("${kitchen.board.subscriber-buffer:256}") int subscriberBuffer,
+                        @Value("${kitchen.board.push-threads:4}") int pushThreads) {
+        this.orderRepository = orderRepository;
+        this.emitterTimeout = emitterTimeout;
+        this.subscriberBuffer = subscriberBuffer;
+        AtomicInteger pushThreadNumber = new AtomicInteger();
+        this.pusher = Executors.newFixedThreadPool(pushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "kitchen-board-push-" + pushThreadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        orderRepository.findAllWithMenuItemsByStatusIn(OPEN_STATUSES)
+                .forEach(order -> orders.put(order.getId(), toKitchenOrder(order)));
+        log.info("Kitchen board loaded {} open orders.", orders.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        pusher.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        sender.execute(() -> refresh(event.getOrderId()));
+    }
+
+    /**
+     * Returns the open orders, oldest first.
+     */
+    public List<KitchenOrderDto> getOrders() {
+        return orders.values().stream()
+                .sorted(Comparator.comparing(KitchenOrderDto::getCreatedAt))
+                .toList();
+    }
+
+    /**
+     * Registers a kitchen screen. The snapshot is queued on the sender thread, so it cannot interleave with deltas.
+     *
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        sender.execute(() -> {
+            Subscriber subscriber = new Subscriber(emitter);
+            subscribers.put(emitter, subscriber);
+            subscriber.offer(SseEmitter.event()
+                    .id(String.valueOf(sequence.get()))
+                    .name("snapshot")
+                    .data(getOrders()));
+        });
+        log.debug("Kitchen screen subscribed, {} connected.", subscribers.size() + 1);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends a comment to every screen so proxies keep the connections open and dead ones are noticed.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.board.heartbeat-interval:PT20S}")
+    public void heartbeat() {
+        sender.execute(() -> broadcast(() -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void refresh(UUID orderId) {
+        try {
+            KitchenOrderDto current = orderRepository.findWithMenuItemsById(orderId)
+                    .filter(order -> OPEN_STATUSES.contains(order.getStatus()))
+                    .map(this::toKitchenOrder)
+                    .orElse(null);
+
+            if (current == null) {
+                if (orders.remove(orderId) != null) {
+                    String id = String.valueOf(sequence.incrementAndGet());
+                    broadcast(() -> SseEmitter.event().id(id).name("order-removed").data(Map.of("id", orderId.toString())));
+                }
+                return;
+            }
+
+            KitchenOrderDto previous = orders.put(orderId, current);
+            if (!current.equals(previous)) {
+                String id = String.valueOf(sequence.incrementAndGet());
+                broadcast(() -> SseEmitter.event().id(id).name("order-updated").data(current));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh order {} on the kitchen board.", orderId, e);
+        }
+    }
+
+    /**
+     * Queues an event for every subscriber. An event builder can only be rendered once, hence the supplier.
+     */
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.values().forEach(subscriber -> subscriber.offer(event.get()));
+    }
+
+    /**
+     * One screen's bounded queue. At most one push task per screen runs at a time, so its events stay in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean pushing = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!pending.offer(event)) {
+                log.warn("Kitchen screen is {} events behind, disconnecting it.", subscriberBuffer);
+                subscribers.remove(emitter);
+                pending.clear();
+                // Completing waits for a send in progress, so it must not happen on the sender thread
+                pusher.execute(emitter::complete);
+                return;
+            }
+            if (pushing.compareAndSet(false, true)) {
+                pusher.execute(this::push);
+            }
+        }
+
+        private void push() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        subscribers.remove(emitter);
+                        pending.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                pushing.set(false);
+            } while (!pending.isEmpty() && pushing.compareAndSet(false, true));
+        }
+    }
+
+    private KitchenOrderDto toKitchenOrder(OrderEntity order) {
+        List<KitchenOrderItemDto> items = order.getOrderItems().stream()
+                .map(item -> new KitchenOrderItemDto(item.getMenuItem().getId().toString(), item.getMenuItem().getName(),
+                        item.getQuantity()))
+                .sorted(Comparator.comparing(KitchenOrderItemDto::getMenuItemName))
+                .toList();
+        return new KitchenOrderDto(order.getId().toString(), order.getStatus().name(), order.getCreatedAt(), items);
+    }
+
+}
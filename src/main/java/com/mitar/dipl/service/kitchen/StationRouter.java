@@ -0,0 +1,272 @@
+package com.mitar.dipl.service.kitchen;
+
+import com.mitar.dipl.event.OrderChangedEvent;
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.ResourceNotFoundException;
+import com.mitar.dipl.model.dto.kitchen.KitchenTicketDto;
+import com.mitar.dipl.model.dto.kitchen.KitchenTicketStatus;
+import com.mitar.dipl.model.entity.OrderEntity;
+import com.mitar.dipl.model.entity.OrderItem;
+import com.mitar.dipl.model.entity.enums.Station;
+import com.mitar.dipl.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Splits open orders into per-item tickets and routes them to stations by menu item category: categories listed
+ * in {@code kitchen.stations.bar-categories} go to the bar, everything else to the kitchen.
+ * <p>
+ * Each station has a lock-free {@link ConcurrentSkipListSet} of waiting tickets ordered by order age, then by
+ * course ({@code kitchen.courses}), so the next ticket is always at the head and claiming it is a single
+ * {@code pollFirst}. Tickets follow the order through {@link OrderChangedEvent}s and disappear once it is no longer
+ * open. Claims live in memory only; after a restart the open orders' tickets are queued again.
+ */
+@Component
+@Slf4j
+public class StationRouter {
+
+    private static final int MAX_CLAIM = 20;
+
+    private final OrderRepository orderRepository;
+    private final Set<String> barCategories;
+    private final Map<String, Integer> courses = new HashMap<>();
+
+    private final Map<Station, ConcurrentSkipListSet<QueueKey>> queues = new EnumMap<>(Station.class);
+    private final Map<UUID, KitchenTicketDto> tickets = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> ticketsByOrder = new ConcurrentHashMap<>();
+
+    private final ExecutorService router = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-station-router");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StationRouter(OrderRepository orderRepository,
+                         @Value("${kitchen.stations.bar-categories:Beverage,Drink,Cocktail,Wine,Beer,Coffee}") List<String> barCategories,
+                         @Value("${kitchen.courses:Appetizer,Main Course,Side Dish,Dessert}") List<String> courses) {
+        this.orderRepository = orderRepository;
+        this.barCategories = new HashSet<>();
+        barCategories.forEach(category -> this.barCategories.add(normalize(category)));
+        for (int i = 0; i < courses.size(); i++) {
+            this.courses.put(normalize(courses.get(i)), i);
+        }
+        for (Station station : Station.values()) {
+            queues.put(station, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<OrderEntity> openOrders = orderRepository.findAllWithMenuItemsByStatusIn(KitchenBoard.OPEN_STATUSES);
+        openOrders.forEach(this::sync);
+        log.info("Routed {} tickets from {} open orders to stations.", tickets.size(), openOrders.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        router.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        router.execute(() -> {
+            try {
+                Optional<OrderEntity> order = orderRepository.findWithMenuItemsById(event.getOrderId())
+                        .filter(o -> KitchenBoard.OPEN_STATUSES.contains(o.getStatus()));
+                if (order.isPresent()) {
+                    sync(order.get());
+                } else {
+                    removeOrder(event.getOrderId());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to route tickets of order {}.", event.getOrderId(), e);
+            }
+        });
+    }
+
+    public static Station parseStation(String station) {
+        try {
+            return Station.valueOf(station.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid station: " + station);
+        }
+    }
+
+    public Station stationOf(String category) {
+        return barCategories.contains(normalize(category)) ? Station.BAR : Station.KITCHEN;
+    }
+
+    /**
+     * Returns the waiting and claimed tickets of a station, next ticket first.
+     */
+    public List<KitchenTicketDto> getTickets(Station station) {
+        List<KitchenTicketDto> claimed = tickets.values().stream()
+                .filter(ticket -> ticket.getStation() == station && ticket.getStatus() == KitchenTicketStatus.CLAIMED)
+                .sorted(Comparator.comparing(KitchenTicketDto::getClaimedAt))
+                .toList();
+        List<KitchenTicketDto> result = new ArrayList<>(claimed);
+        for (QueueKey key : queues.get(station)) {
+            KitchenTicketDto ticket = tickets.get(key.ticketId());
+            if (ticket != null) {
+                result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes the next waiting tickets of a station for a member of staff.
+     *
+     * @param station   The station.
+     * @param count     How many tickets to take at most.
+     * @param claimedBy Who takes them.
+     * @return The claimed tickets, oldest order first.
+     */
+    public List<KitchenTicketDto> claim(Station station, int count, String claimedBy) {
+        if (count < 1 || count > MAX_CLAIM) {
+            throw new BadRequestException("Count must be between 1 and " + MAX_CLAIM + ".");
+        }
+        ConcurrentSkipListSet<QueueKey> queue = queues.get(station);
+        List<KitchenTicketDto> claimed = new ArrayList<>(count);
+        while (claimed.size() < count) {
+            QueueKey key = queue.pollFirst();
+            if (key == null) {
+                break;
+            }
+            // A key can outlive its ticket's queued state when a sync races this loop, so only count own transitions
+            boolean[] taken = {false};
+            KitchenTicketDto ticket = tickets.computeIfPresent(key.ticketId(), (id, current) -> {
+                if (current.getStatus() != KitchenTicketStatus.QUEUED) {
+                    return current;
+                }
+                taken[0] = true;
+                return withStatus(current, KitchenTicketStatus.CLAIMED, claimedBy);
+            });
+            if (taken[0]) {
+                claimed.add(ticket);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Marks a ticket as done. It stays off the queues until its order item changes.
+     *
+     * @param ticketId The UUID of the ticket (the order item).
+     * @return The completed ticket.
+     */
+    public KitchenTicketDto complete(UUID ticketId) {
+        KitchenTicketDto ticket = tickets.computeIfPresent(ticketId, (id, current) ->
+                withStatus(current, KitchenTicketStatus.COMPLETED, current.getClaimedBy()));
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Kitchen ticket not found with ID: " + ticketId);
+        }
+        queues.get(ticket.getStation()).remove(QueueKey.of(ticket));
+        return ticket;
+    }
+
+    /**
+     * Brings the tickets of an open order in line with its items. Unchanged items keep their ticket and status;
+     * a changed quantity puts a completed ticket back in the queue.
+     */
+    void sync(OrderEntity order) {
+        Set<UUID> current = new HashSet<>();
+        for (OrderItem item : order.getOrderItems()) {
+            current.add(item.getId());
+            String category = item.getMenuItem().getCategory();
+            KitchenTicketDto fresh = new KitchenTicketDto(
+                    item.getId().toString(),
+                    order.getId().toString(),
+                    stationOf(category),
+                    item.getMenuItem().getId().toString(),
+                    item.getMenuItem().getName(),
+                    category,
+                    courses.getOrDefault(normalize(category), courses.size()),
+                    item.getQuantity(),
+                    order.getCreatedAt(),
+                    KitchenTicketStatus.QUEUED,
+                    null,
+                    null);
+
+            // Merged atomically, so a claim of the same ticket either happens before and is kept, or sees the result
+            KitchenTicketDto merged = tickets.compute(item.getId(), (id, existing) -> {
+                if (existing == null) {
+                    return fresh;
+                }
+                if (existing.getMenuItemId().equals(fresh.getMenuItemId()) && existing.getQuantity().equals(fresh.getQuantity())) {
+                    return existing;
+                }
+                queues.get(existing.getStation()).remove(QueueKey.of(existing));
+                if (existing.getStatus() == KitchenTicketStatus.CLAIMED && existing.getMenuItemId().equals(fresh.getMenuItemId())) {
+                    return withStatus(fresh, KitchenTicketStatus.CLAIMED, existing.getClaimedBy());
+                }
+                return fresh;
+            });
+            if (merged == fresh) {
+                queues.get(fresh.getStation()).add(QueueKey.of(fresh));
+            }
+        }
+
+        Set<UUID> known = ticketsByOrder.put(order.getId(), current);
+        if (known != null) {
+            known.stream().filter(id -> !current.contains(id)).forEach(this::removeTicket);
+        }
+    }
+
+    void removeOrder(UUID orderId) {
+        Set<UUID> known = ticketsByOrder.remove(orderId);
+        if (known != null) {
+            known.forEach(this::removeTicket);
+        }
+    }
+
+    private void removeTicket(UUID ticketId) {
+        KitchenTicketDto ticket = tickets.remove(ticketId);
+        if (ticket != null) {
+            queues.get(ticket.getStation()).remove(QueueKey.of(ticket));
+        }
+    }
+
+    private static KitchenTicketDto withStatus(KitchenTicketDto ticket, KitchenTicketStatus status, String claimedBy) {
+        return new KitchenTicketDto(ticket.getId(), ticket.getOrderId(), ticket.getStation(), ticket.getMenuItemId(),
+                ticket.getMenuItemName(), ticket.getCategory(), ticket.getCourse(), ticket.getQuantity(),
+                ticket.getOrderCreatedAt(), status, claimedBy,
+                status == KitchenTicketStatus.CLAIMED ? LocalDateTime.now() : ticket.getClaimedAt());
+    }
+
+    private static String normalize(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Position of a ticket in its station's queue: order age, then course, then ticket ID as a tie-breaker.
+     */
+    private record QueueKey(LocalDateTime orderCreatedAt, int course, UUID ticketId) implements Comparable<QueueKey> {
+
+        private static final Comparator<QueueKey> ORDER = Comparator.comparing(QueueKey::orderCreatedAt)
+                .thenComparingInt(QueueKey::course)
+                .thenComparing(QueueKey::ticketId);
+
+        static QueueKey of(KitchenTicketDto ticket) {
+            return new QueueKey(ticket.getOrderCreatedAt(), ticket.getCourse(), UUID.fromString(ticket.getId()));
+        }
+
+        @Override
+        public int compareTo(QueueKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.mitar.dipl.service.order;
+
+import com.mitar.dipl.event.OrderChangedEvent;
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.TooManyRequestsException;
+import com.mitar.dipl.model.dto.order.OrderCreateDto;
+import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.dto.order.OrderIntakeMetricsDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemDto;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.model.entity.enums.Status;
+import com.mitar.dipl.repository.MenuItemRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.utils.UUIDUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Optional intake path for new orders during a rush, where the commit per order is the bottleneck.
+ * <p>
+ * While intake mode is on, {@code POST /orders} validates the order, prices it and gives it its IDs on the request
+ * thread, then appends it to a bounded queue. A single writer takes whatever has piled up while the previous group
+ * was committing, up to {@code orders.intake.max-group-size}, and writes the group with one JDBC batch for
+ * {@code orders}, one for {@code order_items} and a single commit. Should a group fail, its orders are written one
+ * by one so a single bad order does not take the others with it.
+ * <p>
+ * {@code orders.intake.durability} picks the trade-off: {@link Durability#COMMITTED} answers only once the
+ * order's group has committed, so an acknowledged order is never lost but still waits for a (shared) commit;
+ * {@link Durability#QUEUED} answers as soon as the order is queued, which is fastest but loses queued orders if the
+ * process dies before the writer gets to them. A committed order is answered with {@code 201}, anything else with
+ * {@code 202}, including a {@link Durability#COMMITTED} order whose group did not commit within
+ * {@code orders.intake.commit-timeout}.
+ * <p>
+ * New orders always start as {@link Status#PENDING}; as with {@code createOrder}, the requested status is ignored.
+ */
+@Component
+@Slf4j
+public class OrderIntakeQueue {
+
+    /**
+     * When an order is acknowledged to the client.
+     */
+    public enum Durability {
+        /**
+         * Once it is in the queue.
+         */
+        QUEUED,
+        /**
+         * Once its group has committed.
+         */
+        COMMITTED
+    }
+
+    /**
+     * How often an idle writer checks whether it should stop.
+     */
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, created_at, status, version, subtotal, item_count, user_id) VALUES (?, ?, ?, 0, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (id, order_id, menu_item_id, quantity, price, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final MenuItemRepository menuItemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Durability durability;
+    private final int capacity;
+    private final int maxGroupSize;
+    private final Duration commitTimeout;
+
+    private final BlockingQueue<PendingOrder> queue;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-intake-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong turnedAway = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong groupCommits = new AtomicLong();
+    private final AtomicLong groupedOrders = new AtomicLong();
+    private final AtomicLong totalCommitMillis = new AtomicLong();
+
+    private volatile boolean enabled;
+    private volatile boolean running = true;
+
+    public OrderIntakeQueue(MenuItemRepository menuItemRepository,
+                            UserRepository userRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${orders.intake.enabled:false}") boolean enabled,
+                            @Value("${orders.intake.durability:COMMITTED}") Durability durability,
+                            @Value("${orders.intake.capacity:5000}") int capacity,
+                            @Value("${orders.intake.max-group-size:200}") int maxGroupSize,
+                            @Value("${orders.intake.commit-timeout:5s}") Duration commitTimeout) {
+        this.menuItemRepository = menuItemRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.durability = durability;
+        this.capacity = capacity;
+        this.maxGroupSize = maxGroupSize;
+        this.commitTimeout = commitTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.execute(this::writeLoop);
+    }
+
+    /**
+     * Stops taking orders and writes out what is still queued. The writer is asked to stop rather than interrupted,
+     * so a group it has already taken off the queue is committed before the rest is drained here.
+     */
+    @PreDestroy
+    public void stop() {
+        enabled = false;
+        running = false;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(commitTimeout.plus(IDLE_POLL).toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Order intake writer did not stop in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int start = 0; start < remaining.size(); start += maxGroupSize) {
+            writeGroup(remaining.subList(start, Math.min(start + maxGroupSize, remaining.size())));
+        }
+        if (!remaining.isEmpty()) {
+            log.info("Wrote {} queued orders on shutdown.", remaining.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns intake mode on or off. Orders already queued are still written after it is turned off.
+     *
+     * @param enabled Whether new orders should go through the queue.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        log.info("Order intake mode {}.", enabled ? "enabled" : "disabled");
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * A queued order and whether it has been stored yet.
+     */
+    public record Submission(OrderDto order, boolean stored) {
+    }
+
+    /**
+     * Validates and queues a new order.
+     *
+     * @param orderCreateDto The validated order request.
+     * @return The order as it will be stored. With {@link Durability#COMMITTED} it is stored already, unless the
+     * commit took longer than {@code orders.intake.commit-timeout}.
+     * @throws TooManyRequestsException If the queue is full.
+     */
+    public Submission submit(OrderCreateDto orderCreateDto) {
+        PendingOrder order = prepare(orderCreateDto);
+        if (!queue.offer(order)) {
+            turnedAway.incrementAndGet();
+            throw new TooManyRequestsException("Too many orders right now, please try again in a moment.");
+        }
+        accepted.incrementAndGet();
+        log.debug("Queued Order ID: {}", order.id);
+
+        boolean stored = false;
+        if (durability == Durability.COMMITTED) {
+            try {
+                order.committed.get(commitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                stored = true;
+            } catch (TimeoutException e) {
+                log.warn("Order ID {} not committed within {}, acknowledging it as queued.", order.id, commitTimeout);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException
+                        ? runtimeException
+                        : new IllegalStateException("Order could not be stored.", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the order to be stored.", e);
+            }
+        }
+        return new Submission(order.toDto(), stored);
+    }
+
+    public OrderIntakeMetricsDto getMetrics() {
+        long groups = groupCommits.get();
+
+        OrderIntakeMetricsDto metrics = new OrderIntakeMetricsDto();
+        metrics.setEnabled(enabled);
+        metrics.setDurability(durability.name());
+        metrics.setQueueDepth(queue.size());
+        metrics.setQueueCapacity(capacity);
+        metrics.setAccepted(accepted.get());
+        metrics.setTurnedAway(turnedAway.get());
+        metrics.setWritten(written.get());
+        metrics.setFailed(failed.get());
+        metrics.setGroupCommits(groups);
+        metrics.setAverageGroupSize(groups > 0 ? groupedOrders.get() / groups : 0L);
+        metrics.setAverageCommitMillis(groups > 0 ? totalCommitMillis.get() / groups : 0L);
+        return metrics;
+    }
+
+    /**
+     * Does on the request thread what {@code createOrder} checks, so only orders that can be stored are queued.
+     */
+    private PendingOrder prepare(OrderCreateDto orderCreateDto) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        orderCreateDto.getMenuItemIdsAndQuantities().forEach((menuItemId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new BadRequestException("Invalid quantity for MenuItem ID: " + menuItemId);
+            }
+            quantities.merge(UUIDUtils.parseUUID(menuItemId), quantity, Integer::sum);
+        });
+
+        List<MenuItem> menuItems = menuItemRepository.findAllById(quantities.keySet());
+        if (menuItems.size() != quantities.size()) {
+            Set<UUID> notFoundIds = new HashSet<>(quantities.keySet());
+            menuItems.forEach(menuItem -> notFoundIds.remove(menuItem.getId()));
+            log.warn("MenuItems not found with IDs: {}", notFoundIds);
+            throw new BadRequestException("MenuItems not found with the provided IDs: " + notFoundIds);
+        }
+
+        UUID userId = UUIDUtils.parseUUID(orderCreateDto.getUserId());
+        if (!userRepository.existsById(userId)) {
+            log.warn("User not found with ID: {}", orderCreateDto.getUserId());
+            throw new BadRequestException("User not found with the provided ID: " + orderCreateDto.getUserId());
+        }
+
+        List<PendingItem> items = menuItems.stream()
+                .map(menuItem -> {
+                    int quantity = quantities.get(menuItem.getId());
+                    return new PendingItem(UUID.randomUUID(), menuItem.getId(), quantity,
+                            menuItem.getPrice().multiply(BigDecimal.valueOf(quantity)));
+                })
+                .toList();
+        return new PendingOrder(UUID.randomUUID(), LocalDateTime.now(), userId, items);
+    }
+
+    private void writeLoop() {
+        List<PendingOrder> group = new ArrayList<>(maxGroupSize);
+        while (running) {
+            PendingOrder first;
+            try {
+                first = queue.poll(IDLE_POLL.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            group.add(first);
+            queue.drainTo(group, maxGroupSize - 1);
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<PendingOrder> group) {
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(group));
+            groupCommits.incrementAndGet();
+            groupedOrders.addAndGet(group.size());
+            totalCommitMillis.addAndGet((System.nanoTime() - started) / 1_000_000);
+            group.forEach(this::committed);
+            log.debug("Committed a group of {} orders, {} still queued.", group.size(), queue.size());
+        } catch (RuntimeException groupFailure) {
+            log.warn("Writing a group of {} orders failed, writing them one by one.", group.size(), groupFailure);
+            for (PendingOrder order : group) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(order)));
+                    committed(order);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.error("Queued Order ID {} could not be stored.", order.id, e);
+                    order.committed.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingOrder> group) {
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, group, group.size(), (statement, order) -> {
+            statement.setBytes(1, UUIDUtils.toBytes(order.id));
+            statement.setObject(2, order.createdAt);
+            statement.setString(3, Status.PENDING.name());
+            statement.setBigDecimal(4, order.subtotal());
+            statement.setInt(5, order.itemCount());
+            statement.setBytes(6, UUIDUtils.toBytes(order.userId));
+        });
+
+        List<Object[]> items = new ArrayList<>();
+        for (PendingOrder order : group) {
+            for (PendingItem item : order.items) {
+                items.add(new Object[]{UUIDUtils.toBytes(item.id()), UUIDUtils.toBytes(order.id),
+                        UUIDUtils.toBytes(item.menuItemId()), item.quantity(), item.price()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items);
+    }
+
+    private void committed(PendingOrder order) {
+        written.incrementAndGet();
+        order.committed.complete(null);
+        eventPublisher.publishEvent(new OrderChangedEvent(order.id));
+    }
+
+    private record PendingItem(UUID id, UUID menuItemId, int quantity, BigDecimal price) {
+    }
+
+    private static final class PendingOrder {
+
+        private final UUID id;
+        private final LocalDateTime createdAt;
+        private final UUID userId;
+        private final List<PendingItem> items;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        private PendingOrder(UUID id, LocalDateTime createdAt, UUID userId, List<PendingItem> items) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.userId = userId;
+            this.items = items;
+        }
+
+        private BigDecimal subtotal() {
+            return items.stream().map(PendingItem::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        private int itemCount() {
+            return items.stream().mapToInt(PendingItem::quantity).sum();
+        }
+
+        private OrderDto toDto() {
+            OrderDto dto = new OrderDto();
+            dto.setId(id.toString());
+            dto.setCreatedAt(createdAt);
+            dto.setStatus(Status.PENDING.name());
+            dto.setVersion(0L);
+            dto.setSubtotal(subtotal());
+            dto.setItemCount(itemCount());
+            dto.setUserId(userId.toString());
+            dto.setOrderItems(items.stream()
+                    .map(item -> {
+                        OrderItemDto itemDto = new OrderItemDto();
+                        itemDto.setId(item.id().toString());
+                        itemDto.setPrice(item.price());
+                        itemDto.setQuantity(item.quantity());
+                        itemDto.setOrderId(id.toString());
+                        itemDto.setMenuItemId(item.menuItemId().toString());
+                        return itemDto;
+                    })
+                    .collect(Collectors.toSet()));
+            return dto;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.mitar.dipl.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Makes sure the unique key on (order_id, menu_item_id) exists, which the item upserts rely on to increase a line in
+ * place. {@code ddl-auto=update} cannot add the key while the table still holds duplicate lines from before it, and
+ * only logs the failure, so duplicates are merged here first: each group collapses into its lowest ID with the
+ * quantities and prices summed, which leaves the order totals unchanged. Startup fails if the key still cannot be
+ * added.
+ */
+@Component
+@Slf4j
+public class OrderItemUniqueKeyMigration {
+
+    static final String UNIQUE_KEY = "uk_order_items_order_menu_item";
+
+    private static final String KEY_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.table_constraints " +
+            "WHERE table_schema = SCHEMA() AND LOWER(table_name) = 'order_items' AND LOWER(constraint_name) = ?";
+
+    private static final String DUPLICATE_GROUPS_SQL =
+            "SELECT order_id, menu_item_id FROM order_items GROUP BY order_id, menu_item_id HAVING COUNT(*) > 1";
+
+    private static final String GROUP_LINES_SQL =
+            "SELECT id, quantity, price FROM order_items WHERE order_id = ? AND menu_item_id = ? ORDER BY id FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderItemUniqueKeyMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (keyExists()) {
+            return;
+        }
+
+        Integer merged = transactionTemplate.execute(status -> mergeDuplicates());
+        log.warn("Unique key {} was missing, merged {} duplicate order item lines before adding it.", UNIQUE_KEY, merged);
+        jdbcTemplate.execute("ALTER TABLE order_items ADD CONSTRAINT " + UNIQUE_KEY + " UNIQUE (order_id, menu_item_id)");
+
+        if (!keyExists()) {
+            throw new IllegalStateException("Unique key " + UNIQUE_KEY + " on order_items could not be added.");
+        }
+    }
+
+    private boolean keyExists() {
+        Integer count = jdbcTemplate.queryForObject(KEY_EXISTS_SQL, Integer.class, UNIQUE_KEY);
+        return count != null && count > 0;
+    }
+
+    private int mergeDuplicates() {
+        int merged = 0;
+        List<byte[][]> groups = jdbcTemplate.query(DUPLICATE_GROUPS_SQL,
+                (resultSet, rowNumber) -> new byte[][]{resultSet.getBytes(1), resultSet.getBytes(2)});
+        for (byte[][] group : groups) {
+            List<Line> lines = jdbcTemplate.query(GROUP_LINES_SQL,
+                    (resultSet, rowNumber) -> new Line(resultSet.getBytes(1), resultSet.getInt(2), resultSet.getBigDecimal(3)),
+                    group[0], group[1]);
+            if (lines.size() < 2) {
+                continue;
+            }
+            Line kept = lines.get(0);
+            int quantity = lines.stream().mapToInt(Line::quantity).sum();
+            BigDecimal price = lines.stream().map(Line::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+            jdbcTemplate.update("UPDATE order_items SET quantity = ?, price = ?, version = version + 1 WHERE id = ?",
+                    quantity, price, kept.id());
+            for (Line duplicate : lines.subList(1, lines.size())) {
+                merged += jdbcTemplate.update("DELETE FROM order_items WHERE id = ?", (Object) duplicate.id());
+            }
+        }
+        return merged;
+    }
+
+    private record Line(byte[] id, int quantity, BigDecimal price) {
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.mitar.dipl.service.order;
+
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Recomputes the denormalized subtotal and item count of every order from its items and repairs the ones that
+ * drifted, e.g. orders created before the totals existed or rows changed outside the application.
+ * <p>
+ * Orders are walked in primary key order, {@code orders.totals.batch-size} at a time, each batch aggregated by
+ * one grouped query in its own short transaction. A repair only applies if the stored totals are still the ones
+ * that were read and bumps the version, so an edit running at the same time is neither overwritten nor able to
+ * overwrite the repair.
+ * <p>
+ * A run also happens once at startup, so orders written before the totals were maintained are billed correctly
+ * without waiting for the nightly run.
+ */
+@Component
+@Slf4j
+public class OrderTotalsVerifier {
+
+    private static final String AGGREGATE_SQL =
+            "SELECT o.id, o.subtotal, o.item_count, COALESCE(SUM(i.price), 0), COALESCE(SUM(i.quantity), 0) " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.id > ? GROUP BY o.id, o.subtotal, o.item_count ORDER BY o.id LIMIT ?";
+
+    private static final String REPAIR_SQL =
+            "UPDATE orders SET subtotal = ?, item_count = ?, version = version + 1 " +
+            "WHERE id = ? AND subtotal = ? AND item_count = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean verifyOnStartup;
+
+    public OrderTotalsVerifier(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.totals.batch-size:1000}") int batchSize,
+                               @Value("${orders.totals.verify-on-startup:true}") boolean verifyOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.verifyOnStartup = verifyOnStartup;
+    }
+
+    /**
+     * Backfills the totals once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if (verifyOnStartup) {
+            verify();
+        }
+    }
+
+    /**
+     * Verifies all orders.
+     *
+     * @return The number of orders whose totals were repaired.
+     */
+    @Scheduled(cron = "${orders.totals.verify-cron:0 0 5 * * *}")
+    public int verify() {
+        log.info("Verifying order totals.");
+        byte[] after = new byte[16];
+        int checked = 0;
+        int repaired = 0;
+        while (true) {
+            List<OrderTotals> batch = jdbcTemplate.query(AGGREGATE_SQL, (resultSet, rowNumber) -> new OrderTotals(
+                    resultSet.getBytes(1),
+                    resultSet.getBigDecimal(2),
+                    resultSet.getInt(3),
+                    resultSet.getBigDecimal(4),
+                    resultSet.getInt(5)), after, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Integer fixed = transactionTemplate.execute(status -> repair(batch));
+            repaired += fixed != null ? fixed : 0;
+            checked += batch.size();
+            after = batch.get(batch.size() - 1).id();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        log.info("Verified totals of {} orders, repaired {}.", checked, repaired);
+        return repaired;
+    }
+
+    private int repair(List<OrderTotals> batch) {
+        int repaired = 0;
+        for (OrderTotals totals : batch) {
+            if (totals.storedSubtotal().compareTo(totals.subtotal()) == 0 && totals.storedItemCount() == totals.itemCount()) {
+                continue;
+            }
+            log.warn("Order {} has subtotal {} and item count {}, its items add up to {} and {}.",
+                    UUIDUtils.fromBytes(totals.id()), totals.storedSubtotal(), totals.storedItemCount(),
+                    totals.subtotal(), totals.itemCount());
+            repaired += jdbcTemplate.update(REPAIR_SQL, totals.subtotal(), totals.itemCount(), totals.id(),
+                    totals.storedSubtotal(), totals.storedItemCount());
+        }
+        return repaired;
+    }
+
+    private record OrderTotals(byte[] id, BigDecimal storedSubtotal, int storedItemCount, BigDecimal subtotal, int itemCount) {
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.entity.Reservation;
+import com.mitar.dipl.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills the normalized guest search columns of reservations written before those columns existed.
+ * New and updated reservations are normalized by the entity callbacks.
+ */
+@Component
+@Slf4j
+public class GuestFieldBackfill {
+
+    private static final int BATCH_SIZE = 500;
+    // BINARY(16) ids compare as unsigned bytes, so all zeros is the lowest one
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public GuestFieldBackfill(ReservationRepository reservationRepository, PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        UUID afterId = MIN_ID;
+        int total = 0;
+        while (afterId != null) {
+            UUID from = afterId;
+            List<UUID> batch = transactionTemplate.execute(status -> {
+                List<Reservation> reservations = reservationRepository.findWithoutNormalizedGuestFields(from, PageRequest.ofSize(BATCH_SIZE));
+                reservations.forEach(Reservation::normalizeGuestFields);
+                return reservations.stream().map(Reservation::getId).toList();
+            });
+            total += batch.size();
+            afterId = batch.size() < BATCH_SIZE ? null : batch.get(batch.size() - 1);
+        }
+        if (total > 0) {
+            log.info("Normalized guest search fields of {} existing reservations.", total);
+        }
+    }
+
+}
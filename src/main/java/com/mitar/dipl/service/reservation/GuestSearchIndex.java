@@ -0,0 +1,177 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.event.ReservationChangedEvent;
+import com.mitar.dipl.model.dto.reservation.ReservationGuest;
+import com.mitar.dipl.repository.ReservationRepository;
+import com.mitar.dipl.utils.GuestNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index over the guest name, email and phone of upcoming reservations, used for partial matching
+ * ("ana mar", "gmail", "64 123") that the prefix indexes on the normalized columns cannot answer.
+ * <p>
+ * Warm-loaded on startup and kept current by {@link ReservationChangedEvent}s. Reservations drop out of the
+ * index once their time has passed.
+ */
+@Component
+@Slf4j
+public class GuestSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReservationRepository reservationRepository;
+
+    private final Map<UUID, IndexedGuest> guests = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+    public GuestSearchIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        List<ReservationGuest> upcoming = reservationRepository.findGuestsFrom(LocalDate.now().atStartOfDay());
+        upcoming.forEach(this::put);
+        log.info("Guest search index loaded {} upcoming guest reservations.", guests.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious().getId());
+        }
+        if (event.getGuest() != null) {
+            put(event.getGuest());
+        }
+    }
+
+    /**
+     * Finds upcoming reservations whose guest name, email or phone contains the search term.
+     *
+     * @param term  The raw search term.
+     * @param limit Maximum number of IDs to return.
+     * @return IDs of the matching reservations, soonest first.
+     */
+    public List<UUID> search(String term, int limit) {
+        String needle = toNeedle(term);
+        if (needle == null || needle.length() < GRAM) {
+            return List.of();
+        }
+
+        List<Set<UUID>> candidateSets = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            candidateSets.add(posting);
+        }
+        candidateSets.sort(Comparator.comparingInt(Set::size));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<IndexedGuest> matches = new ArrayList<>();
+        for (UUID id : candidateSets.get(0)) {
+            IndexedGuest guest = guests.get(id);
+            if (guest == null || guest.reservationTime().isBefore(now) || !guest.text().contains(needle)) {
+                continue;
+            }
+            boolean inAll = true;
+            for (int i = 1; i < candidateSets.size() && inAll; i++) {
+                inAll = candidateSets.get(i).contains(id);
+            }
+            if (inAll) {
+                matches.add(guest);
+            }
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparing(IndexedGuest::reservationTime))
+                .limit(limit)
+                .map(IndexedGuest::id)
+                .toList();
+    }
+
+    /**
+     * Drops reservations whose time has already passed. Searches skip them anyway; this only reclaims memory.
+     */
+    @Scheduled(cron = "${reservations.guest-search.eviction-cron:0 0 4 * * *}")
+    public synchronized void evictPast() {
+        LocalDateTime now = LocalDateTime.now();
+        guests.values().stream()
+                .filter(guest -> guest.reservationTime().isBefore(now))
+                .map(IndexedGuest::id)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    private void put(ReservationGuest guest) {
+        String text = searchableText(guest);
+        if (text.isEmpty()) {
+            return;
+        }
+        remove(guest.getId());
+        guests.put(guest.getId(), new IndexedGuest(guest.getId(), guest.getReservationTime(), text));
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(guest.getId());
+        }
+    }
+
+    private void remove(UUID reservationId) {
+        IndexedGuest removed = guests.remove(reservationId);
+        if (removed == null) {
+            return;
+        }
+        for (String gram : grams(removed.text())) {
+            postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(reservationId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Joins the normalized fields with a separator that never appears inside them, so grams do not span fields.
+     */
+    private static String searchableText(ReservationGuest guest) {
+        StringJoiner text = new StringJoiner("\u0000");
+        Optional.ofNullable(GuestNormalizer.foldName(guest.getGuestName())).ifPresent(text::add);
+        Optional.ofNullable(GuestNormalizer.normalizeEmail(guest.getGuestEmail())).ifPresent(text::add);
+        Optional.ofNullable(GuestNormalizer.phoneDigits(guest.getGuestPhone())).ifPresent(text::add);
+        return text.toString();
+    }
+
+    private static String toNeedle(String term) {
+        if (GuestNormalizer.isPhoneLike(term)) {
+            return GuestNormalizer.phoneDigits(term);
+        }
+        if (term != null && (term.contains("@") || term.contains("."))) {
+            return GuestNormalizer.normalizeEmail(term);
+        }
+        return GuestNormalizer.foldName(term);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            if (gram.indexOf('\u0000') < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    private record IndexedGuest(UUID id, LocalDateTime reservationTime, String text) {
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.dto.reservation.ReservationReminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes reminders to the application log, standing in for an email or SMS gateway.
+ */
+@Component
+@Slf4j
+public class LoggingReservationReminderSink implements ReservationReminderSink {
+
+    @Override
+    public void send(List<ReservationReminder> reminders) {
+        for (ReservationReminder reminder : reminders) {
+            String recipient = reminder.getUserEmail() != null
+                    ? reminder.getUserEmail()
+                    : reminder.getGuestName() + " <" + reminder.getGuestEmail() + ", " + reminder.getGuestPhone() + ">";
+            log.info("Reminder to {}: table {} for {} guests at {} (reservation {}).", recipient, reminder.getTableNumber(),
+                    reminder.getNumberOfGuests(), reminder.getReservationTime(), reminder.getReservationId());
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.mitar.dipl.service.reservation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Hierarchical timer wheel of reservation reminders with one-minute ticks.
+ * <p>
+ * Three levels cover minutes of the next hour, hours of the next day and days of the next month. A reminder is
+ * put into the coarsest bucket it needs and cascades into finer levels as that bucket comes up, so scheduling
+ * and cancelling are constant time and each tick only touches the reminders that are about to fire.
+ */
+public class ReminderTimerWheel {
+
+    public static final Duration TICK = Duration.ofMinutes(1);
+
+    private static final int[] BUCKETS = {60, 24, 32};
+    private static final long[] TICKS_PER_BUCKET = {1, 60, 60 * 24};
+
+    /**
+     * How far ahead a reminder can be scheduled.
+     */
+    public static final Duration SPAN = TICK.multipliedBy(TICKS_PER_BUCKET[2] * BUCKETS[2]);
+
+    private final List<List<Set<UUID>>> levels = new ArrayList<>();
+    private final Map<UUID, Timer> timers = new HashMap<>();
+    private final Set<UUID> due = new LinkedHashSet<>();
+
+    private long currentTick;
+
+    public ReminderTimerWheel(Instant now) {
+        for (int buckets : BUCKETS) {
+            List<Set<UUID>> level = new ArrayList<>(buckets);
+            for (int i = 0; i < buckets; i++) {
+                level.add(new HashSet<>());
+            }
+            levels.add(level);
+        }
+        currentTick = tickOf(now);
+    }
+
+    /**
+     * Schedules (or reschedules) the reminder of a reservation. Reminders whose time has already come are due on
+     * the next {@link #advance}.
+     *
+     * @param reservationId The UUID of the reservation.
+     * @param fireAt        When the reminder should go out.
+     * @return False if the time lies beyond {@link #SPAN}, otherwise true.
+     */
+    public synchronized boolean schedule(UUID reservationId, Instant fireAt) {
+        cancel(reservationId);
+        long tick = tickOf(fireAt);
+        if (tick - currentTick >= TICKS_PER_BUCKET[2] * BUCKETS[2]) {
+            return false;
+        }
+        place(reservationId, tick);
+        return true;
+    }
+
+    public synchronized void cancel(UUID reservationId) {
+        Timer timer = timers.remove(reservationId);
+        if (timer == null) {
+            due.remove(reservationId);
+            return;
+        }
+        levels.get(timer.level()).get(timer.bucket()).remove(reservationId);
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @param now The current time.
+     * @return Reservations whose reminders are due, in firing order.
+     */
+    public synchronized List<UUID> advance(Instant now) {
+        long target = tickOf(now);
+        while (currentTick < target) {
+            currentTick++;
+            // Coarse levels first, so reminders they hand down for this tick land in the bucket expired below
+            for (int level = BUCKETS.length - 1; level > 0; level--) {
+                if (currentTick % TICKS_PER_BUCKET[level] == 0) {
+                    cascade(level, bucketOf(level, currentTick));
+                }
+            }
+            Set<UUID> expired = levels.get(0).get(bucketOf(0, currentTick));
+            expired.forEach(timers::remove);
+            due.addAll(expired);
+            expired.clear();
+        }
+
+        List<UUID> fired = new ArrayList<>(due);
+        due.clear();
+        return fired;
+    }
+
+    public synchronized int size() {
+        return timers.size() + due.size();
+    }
+
+    private void cascade(int level, int bucket) {
+        Set<UUID> reminders = levels.get(level).get(bucket);
+        List<UUID> moving = new ArrayList<>(reminders);
+        reminders.clear();
+        for (UUID reservationId : moving) {
+            place(reservationId, timers.remove(reservationId).tick());
+        }
+    }
+
+    private void place(UUID reservationId, long tick) {
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            due.add(reservationId);
+            return;
+        }
+        int level = 0;
+        while (delta >= TICKS_PER_BUCKET[level] * BUCKETS[level]) {
+            level++;
+        }
+        int bucket = bucketOf(level, tick);
+        levels.get(level).get(bucket).add(reservationId);
+        timers.put(reservationId, new Timer(tick, level, bucket));
+    }
+
+    private static int bucketOf(int level, long tick) {
+        return (int) ((tick / TICKS_PER_BUCKET[level]) % BUCKETS[level]);
+    }
+
+    private static long tickOf(Instant time) {
+        return Math.floorDiv(time.toEpochMilli(), TICK.toMillis());
+    }
+
+    private record Timer(long tick, int level, int bucket) {
+    }
+
+}
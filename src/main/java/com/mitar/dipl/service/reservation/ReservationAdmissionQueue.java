@@ -0,0 +1,309 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.ConflictException;
+import com.mitar.dipl.exception.custom.ResourceNotFoundException;
+import com.mitar.dipl.exception.custom.TooManyRequestsException;
+import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationDto;
+import com.mitar.dipl.model.dto.reservation.ReservationTicketDto;
+import com.mitar.dipl.model.dto.reservation.ReservationTicketStatus;
+import com.mitar.dipl.model.dto.rush.RushMetricsDto;
+import com.mitar.dipl.service.ReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission queue for reservation requests during a booking rush.
+ * <p>
+ * While rush mode is on, {@code POST /reservations} only enqueues the request and hands out a ticket the client
+ * polls. The queue is bounded and each client may only hold a few open tickets, so excess load is turned away
+ * with 429 instead of piling up on the connection pool. A drain on its own thread takes a batch at a fixed rate,
+ * splits it by table and books each table's requests in arrival order, with different tables processed in
+ * parallel. Requests for the same table never compete for its booking lock. The drain does not run on the shared
+ * Spring scheduler, so long scheduled jobs such as the nightly archive cannot hold it up.
+ */
+@Component
+@Slf4j
+public class ReservationAdmissionQueue {
+
+    private final ReservationService reservationService;
+    private final int capacity;
+    private final int maxTicketsPerClient;
+    private final int batchSize;
+    private final Duration ticketRetention;
+    private final Duration drainInterval;
+    private final Duration cleanupInterval;
+
+    private final BlockingQueue<Ticket> queue;
+    private final Map<UUID, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openTicketsByClient = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-rush-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong turnedAway = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    private volatile boolean enabled;
+
+    public ReservationAdmissionQueue(ReservationService reservationService,
+                                     @Value("${reservations.rush.enabled:false}") boolean enabled,
+                                     @Value("${reservations.rush.capacity:5000}") int capacity,
+                                     @Value("${reservations.rush.max-tickets-per-client:2}") int maxTicketsPerClient,
+                                     @Value("${reservations.rush.batch-size:100}") int batchSize,
+                                     @Value("${reservations.rush.workers:4}") int workerCount,
+                                     @Value("${reservations.rush.ticket-retention:15m}") Duration ticketRetention,
+                                     @Value("${reservations.rush.drain-interval:200ms}") Duration drainInterval,
+                                     @Value("${reservations.rush.cleanup-interval:60s}") Duration cleanupInterval) {
+        this.reservationService = reservationService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxTicketsPerClient = maxTicketsPerClient;
+        this.batchSize = batchSize;
+        this.ticketRetention = ticketRetention;
+        this.drainInterval = drainInterval;
+        this.cleanupInterval = cleanupInterval;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "reservation-rush-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        drainer.scheduleWithFixedDelay(this::drainSafely, drainInterval.toMillis(), drainInterval.toMillis(), TimeUnit.MILLISECONDS);
+        drainer.scheduleWithFixedDelay(this::evictFinishedTickets, cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        drainer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns rush mode on or off. Requests already queued are still processed after it is turned off.
+     *
+     * @param enabled Whether new reservation requests should be queued.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        log.info("Reservation rush mode {}.", enabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Queues a reservation request.
+     *
+     * @param clientKey            Identifies the client for the per-client ticket limit.
+     * @param reservationCreateDto The validated reservation request.
+     * @return The ticket to poll.
+     * @throws TooManyRequestsException If the client has too many open tickets or the queue is full.
+     */
+    public ReservationTicketDto enqueue(String clientKey, ReservationCreateDto reservationCreateDto) {
+        if (!openTicket(clientKey)) {
+            turnedAway.incrementAndGet();
+            throw new TooManyRequestsException("You already have " + maxTicketsPerClient + " reservation requests waiting, please wait for them to finish.");
+        }
+
+        Ticket ticket = new Ticket(UUID.randomUUID(), clientKey, reservationCreateDto, Instant.now());
+        tickets.put(ticket.id, ticket);
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.id);
+            closeTicket(clientKey);
+            turnedAway.incrementAndGet();
+            throw new TooManyRequestsException("Too many reservation requests right now, please try again in a moment.");
+        }
+
+        enqueued.incrementAndGet();
+        log.debug("Queued reservation request {} for client {}", ticket.id, clientKey);
+        return ticket.toDto();
+    }
+
+    /**
+     * Returns the state of a ticket owned by the client.
+     *
+     * @param ticketId  The UUID of the ticket.
+     * @param clientKey The client asking, or null to skip the ownership check.
+     * @return ReservationTicketDto
+     */
+    public ReservationTicketDto getTicket(UUID ticketId, String clientKey) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || (clientKey != null && !ticket.clientKey.equals(clientKey))) {
+            throw new ResourceNotFoundException("Reservation ticket not found with ID: " + ticketId);
+        }
+        return ticket.toDto();
+    }
+
+    public RushMetricsDto getMetrics() {
+        long processed = confirmed.get() + rejected.get();
+
+        RushMetricsDto metrics = new RushMetricsDto();
+        metrics.setEnabled(enabled);
+        metrics.setQueueDepth(queue.size());
+        metrics.setQueueCapacity(capacity);
+        metrics.setEnqueued(enqueued.get());
+        metrics.setTurnedAway(turnedAway.get());
+        metrics.setConfirmed(confirmed.get());
+        metrics.setRejected(rejected.get());
+        metrics.setAverageWaitMillis(processed > 0 ? totalWaitMillis.get() / processed : 0L);
+        metrics.setMaxWaitMillis(maxWaitMillis.get());
+        return metrics;
+    }
+
+    /**
+     * Takes one batch off the queue and books it, one table partition per worker.
+     */
+    public void drain() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Ticket>> byTable = new LinkedHashMap<>();
+        for (Ticket ticket : batch) {
+            byTable.computeIfAbsent(ticket.request.getTableId().toLowerCase(), tableId -> new ArrayList<>()).add(ticket);
+        }
+
+        List<Callable<Void>> partitions = byTable.values().stream()
+                .<Callable<Void>>map(partition -> () -> {
+                    partition.forEach(this::process);
+                    return null;
+                })
+                .toList();
+        try {
+            workers.invokeAll(partitions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.debug("Processed {} queued reservation requests across {} tables, {} still waiting.",
+                batch.size(), byTable.size(), queue.size());
+    }
+
+    /**
+     * A periodic task that throws is never run again, so a failed drain is logged and the next one goes ahead.
+     */
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Draining the reservation rush queue failed.", e);
+        }
+    }
+
+    /**
+     * Forgets finished tickets once clients have had time to poll them.
+     */
+    public void evictFinishedTickets() {
+        Instant cutoff = Instant.now().minus(ticketRetention);
+        tickets.values().removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(cutoff));
+    }
+
+    private void process(Ticket ticket) {
+        ticket.status = ReservationTicketStatus.PROCESSING;
+        long waitMillis = Duration.between(ticket.enqueuedAt, Instant.now()).toMillis();
+        totalWaitMillis.addAndGet(waitMillis);
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+
+        try {
+            ticket.reservation = reservationService.createReservation(ticket.request);
+            ticket.status = ReservationTicketStatus.CONFIRMED;
+            confirmed.incrementAndGet();
+        } catch (BadRequestException | ConflictException | ResourceNotFoundException e) {
+            ticket.error = e.getMessage();
+            ticket.status = ReservationTicketStatus.REJECTED;
+            rejected.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("Queued reservation request {} failed.", ticket.id, e);
+            ticket.error = "An unexpected error occurred.";
+            ticket.status = ReservationTicketStatus.REJECTED;
+            rejected.incrementAndGet();
+        } finally {
+            ticket.completedAt = Instant.now();
+            closeTicket(ticket.clientKey);
+        }
+    }
+
+    /**
+     * Counts a new open ticket for the client, unless it already holds the maximum.
+     *
+     * @return True if the ticket was counted, otherwise false.
+     */
+    private boolean openTicket(String clientKey) {
+        boolean[] opened = {false};
+        openTicketsByClient.compute(clientKey, (key, open) -> {
+            int current = open == null ? 0 : open;
+            if (current >= maxTicketsPerClient) {
+                return open;
+            }
+            opened[0] = true;
+            return current + 1;
+        });
+        return opened[0];
+    }
+
+    /**
+     * Counts a ticket of the client as finished. The entry goes once the client has no open tickets, in the same
+     * atomic step, so a concurrent {@link #openTicket} never counts on an entry that has left the map.
+     */
+    private void closeTicket(String clientKey) {
+        openTicketsByClient.computeIfPresent(clientKey, (key, open) -> open > 1 ? open - 1 : null);
+    }
+
+    private static final class Ticket {
+
+        private final UUID id;
+        private final String clientKey;
+        private final ReservationCreateDto request;
+        private final Instant enqueuedAt;
+
+        private volatile ReservationTicketStatus status = ReservationTicketStatus.QUEUED;
+        private volatile ReservationDto reservation;
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private Ticket(UUID id, String clientKey, ReservationCreateDto request, Instant enqueuedAt) {
+            this.id = id;
+            this.clientKey = clientKey;
+            this.request = request;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private ReservationTicketDto toDto() {
+            ReservationTicketDto dto = new ReservationTicketDto();
+            dto.setId(id.toString());
+            dto.setStatus(status);
+            dto.setEnqueuedAt(enqueuedAt);
+            dto.setCompletedAt(completedAt);
+            dto.setReservation(reservation);
+            dto.setError(error);
+            return dto;
+        }
+    }
+
+}
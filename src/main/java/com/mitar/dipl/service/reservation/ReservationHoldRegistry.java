@@ -0,0 +1,212 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.event.ReservationHoldEndedEvent;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived holds on a table and start time, kept only in memory.
+ * <p>
+ * A hold blocks the slot for other bookings while a guest finishes checking out, without writing a reservation
+ * row. Holds expire after {@code reservations.holds.ttl}; a daemon thread takes them off a {@link DelayQueue}
+ * as their deadline passes. Holds do not survive a restart, which is acceptable for a checkout-length TTL.
+ * Every hold that ends is announced with a {@link ReservationHoldEndedEvent}.
+ */
+@Component
+@Slf4j
+public class ReservationHoldRegistry {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+
+    private final Map<UUID, Hold> holdsById = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Hold>> holdsByTable = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiryQueue = new DelayQueue<>();
+
+    private Thread expiryThread;
+
+    public ReservationHoldRegistry(ApplicationEventPublisher eventPublisher,
+                                   @Value("${reservations.holds.ttl:5m}") Duration ttl) {
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    public void start() {
+        expiryThread = new Thread(this::expireHolds, "reservation-hold-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        expiryThread.interrupt();
+    }
+
+    /**
+     * Places a hold. Callers check for conflicts first while holding the table's booking lock.
+     *
+     * @param tableId         The UUID of the table.
+     * @param reservationTime The held start time.
+     * @param numberOfGuests  The party size the hold was made for.
+     * @return The new hold.
+     */
+    public Hold place(UUID tableId, LocalDateTime reservationTime, int numberOfGuests) {
+        Hold hold = new Hold(UUID.randomUUID(), tableId, reservationTime, numberOfGuests, Instant.now().plus(ttl));
+        holdsById.put(hold.id(), hold);
+        holdsByTable.computeIfAbsent(tableId, id -> ConcurrentHashMap.newKeySet()).add(hold);
+        expiryQueue.put(hold);
+        log.debug("Placed hold {} on table {} at {}", hold.id(), tableId, reservationTime);
+        return hold;
+    }
+
+    /**
+     * Returns a hold that has not expired yet.
+     *
+     * @param holdId The UUID of the hold.
+     * @return The hold, or empty if it does not exist or has expired.
+     */
+    public Optional<Hold> find(UUID holdId) {
+        Hold hold = holdsById.get(holdId);
+        return hold != null && !hold.isExpired() ? Optional.of(hold) : Optional.empty();
+    }
+
+    /**
+     * Releases a hold before it expires.
+     *
+     * @param holdId The UUID of the hold.
+     * @return True if an active hold was released, otherwise false.
+     */
+    public boolean release(UUID holdId) {
+        return end(holdId, ReservationHoldEndedEvent.Outcome.RELEASED);
+    }
+
+    /**
+     * Ends a hold whose slot has been turned into a committed reservation.
+     *
+     * @param holdId The UUID of the hold.
+     */
+    public void convert(UUID holdId) {
+        end(holdId, ReservationHoldEndedEvent.Outcome.CONFIRMED);
+    }
+
+    private boolean end(UUID holdId, ReservationHoldEndedEvent.Outcome outcome) {
+        Hold hold = holdsById.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        holdsByTable.computeIfPresent(hold.tableId(), (id, holds) -> {
+            holds.remove(hold);
+            return holds.isEmpty() ? null : holds;
+        });
+        expiryQueue.remove(hold);
+        boolean active = !hold.isExpired();
+        // A hold confirmed just past its deadline still became a reservation
+        boolean converted = outcome == ReservationHoldEndedEvent.Outcome.CONFIRMED;
+        eventPublisher.publishEvent(new ReservationHoldEndedEvent(hold,
+                active || converted ? outcome : ReservationHoldEndedEvent.Outcome.EXPIRED));
+        return active;
+    }
+
+    /**
+     * Checks whether an active hold on the table conflicts with a reservation starting at the given time.
+     *
+     * @param tableId       The UUID of the table.
+     * @param start         The requested start time.
+     * @param excludeHoldId Hold ID to ignore (the one being confirmed), or null.
+     * @return True if a conflicting hold exists, otherwise false.
+     */
+    public boolean hasConflict(UUID tableId, LocalDateTime start, UUID excludeHoldId) {
+        Set<Hold> holds = holdsByTable.get(tableId);
+        if (holds == null) {
+            return false;
+        }
+        LocalDateTime from = ReservationSchedule.conflictWindowStart(start);
+        LocalDateTime to = ReservationSchedule.conflictWindowEnd(start);
+        for (Hold hold : holds) {
+            if (!hold.id().equals(excludeHoldId) && !hold.isExpired()
+                    && !hold.reservationTime().isBefore(from) && !hold.reservationTime().isAfter(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the active holds starting in a time window, in the same shape as reservation slots.
+     *
+     * @param from Start of the window (inclusive).
+     * @param to   End of the window (exclusive).
+     * @return List of held slots.
+     */
+    public List<ReservationSlot> findSlotsBetween(LocalDateTime from, LocalDateTime to) {
+        List<ReservationSlot> slots = new ArrayList<>();
+        for (Hold hold : holdsById.values()) {
+            if (!hold.isExpired() && !hold.reservationTime().isBefore(from) && hold.reservationTime().isBefore(to)) {
+                slots.add(hold.toSlot());
+            }
+        }
+        return slots;
+    }
+
+    public int size() {
+        return holdsById.size();
+    }
+
+    private void expireHolds() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Hold hold = expiryQueue.take();
+                if (holdsById.remove(hold.id(), hold)) {
+                    holdsByTable.computeIfPresent(hold.tableId(), (id, holds) -> {
+                        holds.remove(hold);
+                        return holds.isEmpty() ? null : holds;
+                    });
+                    log.debug("Hold {} on table {} expired.", hold.id(), hold.tableId());
+                    eventPublisher.publishEvent(new ReservationHoldEndedEvent(hold, ReservationHoldEndedEvent.Outcome.EXPIRED));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Failed to announce an expired hold.", e);
+            }
+        }
+    }
+
+    public record Hold(UUID id, UUID tableId, LocalDateTime reservationTime, int numberOfGuests,
+                       Instant expiresAt) implements Delayed {
+
+        public boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+
+        public ReservationSlot toSlot() {
+            return new ReservationSlot(id, tableId, reservationTime, numberOfGuests);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+}
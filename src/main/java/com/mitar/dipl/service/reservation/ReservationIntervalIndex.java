@@ -0,0 +1,231 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.event.ReservationChangedEvent;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of active reservations, bucketed per table and day and sorted by start time.
+ * <p>
+ * Answers "is this table taken at this time" without a database round trip. The index is warm-loaded
+ * with upcoming reservations once the application is ready and kept current by
+ * {@link ReservationChangedEvent}s after each commit, applied before the table's {@link TableBookingLock} is
+ * released. It only ever sees this node's writes, so a conflict it reports is enough to refuse a booking, but a
+ * free answer is always confirmed by the repository query made under the table's row lock.
+ * <p>
+ * {@link #canReportConflicts} tells callers when the index cannot be used at all: before the warm-load
+ * finishes, for days before the indexed range, when the index is disabled, and when
+ * {@code reservations.index.authoritative} is off because other application nodes write to the same database
+ * and a reservation they cancel would stay here as a false conflict. Past days are dropped every night.
+ */
+@Component
+@Slf4j
+public class ReservationIntervalIndex {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing(Entry::start)
+            .thenComparing(Entry::id);
+
+    private final ReservationRepository reservationRepository;
+    private final boolean enabled;
+    private final boolean authoritative;
+
+    private final Map<TableDay, ConcurrentSkipListSet<Entry>> buckets = new ConcurrentHashMap<>();
+    private final Map<UUID, ReservationSlot> slotsById = new ConcurrentHashMap<>();
+    private final Set<UUID> removedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    /**
+     * First day whose reservations are all in the index.
+     */
+    private volatile LocalDate indexedFrom = LocalDate.MAX;
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository,
+                                    @Value("${reservations.index.enabled:true}") boolean enabled,
+                                    @Value("${reservations.index.authoritative:true}") boolean authoritative) {
+        this.reservationRepository = reservationRepository;
+        this.enabled = enabled;
+        this.authoritative = authoritative;
+    }
+
+    /**
+     * Loads every reservation starting today or later into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Reservation interval index is disabled.");
+            return;
+        }
+
+        long started = System.nanoTime();
+        loading = true;
+        LocalDate today = LocalDate.now();
+        List<ReservationSlot> slots = reservationRepository.findSlotsFrom(today.atStartOfDay());
+        synchronized (this) {
+            for (ReservationSlot slot : slots) {
+                if (!removedWhileLoading.contains(slot.getId()) && slotsById.putIfAbsent(slot.getId(), slot) == null) {
+                    add(slot);
+                }
+            }
+            removedWhileLoading.clear();
+            loading = false;
+            indexedFrom = today;
+            ready = true;
+        }
+
+        log.info("Reservation interval index loaded {} reservations in {} ms.",
+                slots.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Runs ahead of the other after-commit callbacks, in particular before {@link TableBookingLock} lets the next
+     * booking of the table in.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious().getId());
+        }
+        if (event.getCurrent() != null) {
+            put(event.getCurrent());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tells whether a conflict found by {@link #hasConflict} for a reservation starting at the given time can be
+     * trusted without asking the database.
+     *
+     * @param start The requested start time.
+     * @return True if the index covers the whole conflict window and no other node changes its reservations.
+     */
+    public boolean canReportConflicts(LocalDateTime start) {
+        return enabled && authoritative && ready
+                && !ReservationSchedule.conflictWindowStart(start).toLocalDate().isBefore(indexedFrom);
+    }
+
+    /**
+     * Checks whether any indexed reservation on the table conflicts with a reservation starting at the given time.
+     *
+     * @param tableId   The UUID of the table.
+     * @param start     The requested start time.
+     * @param excludeId Reservation ID to ignore (the one being updated), or null.
+     * @return True if a conflicting reservation exists, otherwise false.
+     */
+    public boolean hasConflict(UUID tableId, LocalDateTime start, UUID excludeId) {
+        LocalDateTime from = ReservationSchedule.conflictWindowStart(start);
+        LocalDateTime to = ReservationSchedule.conflictWindowEnd(start);
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            ConcurrentSkipListSet<Entry> bucket = buckets.get(new TableDay(tableId, day));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket.subSet(new Entry(from, MIN_ID), true, new Entry(to, MAX_ID), true)) {
+                if (!entry.id().equals(excludeId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the start times of the indexed reservations on a table for one day, in ascending order.
+     *
+     * @param tableId The UUID of the table.
+     * @param day     The day to look at.
+     * @return Sorted start times.
+     */
+    public List<LocalDateTime> startTimes(UUID tableId, LocalDate day) {
+        ConcurrentSkipListSet<Entry> bucket = buckets.get(new TableDay(tableId, day));
+        if (bucket == null) {
+            return List.of();
+        }
+        return bucket.stream().map(Entry::start).toList();
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Drops the reservations of past days, which no booking can conflict with any more.
+     */
+    @Scheduled(cron = "${reservations.index.eviction-cron:0 10 4 * * *}")
+    public synchronized void evictPast() {
+        LocalDate today = LocalDate.now();
+        if (ready && indexedFrom.isBefore(today)) {
+            indexedFrom = today;
+        }
+        buckets.keySet().removeIf(key -> key.day().isBefore(today));
+        int before = slotsById.size();
+        slotsById.values().removeIf(slot -> slot.getReservationTime().toLocalDate().isBefore(today));
+        log.debug("Evicted {} past reservations from the interval index.", before - slotsById.size());
+    }
+
+    private void put(ReservationSlot slot) {
+        remove(slot.getId());
+        slotsById.put(slot.getId(), slot);
+        add(slot);
+    }
+
+    private void remove(UUID reservationId) {
+        if (loading) {
+            removedWhileLoading.add(reservationId);
+        }
+        ReservationSlot slot = slotsById.remove(reservationId);
+        if (slot == null) {
+            return;
+        }
+        TableDay key = new TableDay(slot.getTableId(), slot.getReservationTime().toLocalDate());
+        buckets.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(new Entry(slot.getReservationTime(), slot.getId()));
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private void add(ReservationSlot slot) {
+        TableDay key = new TableDay(slot.getTableId(), slot.getReservationTime().toLocalDate());
+        buckets.compute(key, (k, bucket) -> {
+            ConcurrentSkipListSet<Entry> target = bucket != null ? bucket : new ConcurrentSkipListSet<>(ENTRY_ORDER);
+            target.add(new Entry(slot.getReservationTime(), slot.getId()));
+            return target;
+        });
+    }
+
+    private record TableDay(UUID tableId, LocalDate day) {
+    }
+
+    private record Entry(LocalDateTime start, UUID id) {
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.event.ReservationChangedEvent;
+import com.mitar.dipl.model.dto.reservation.ReservationReminder;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends a reminder {@code reservations.reminders.lead-time} before each reservation.
+ * <p>
+ * Only reminders due within {@code reservations.reminders.horizon} are kept in a {@link ReminderTimerWheel}.
+ * The window is loaded with one range query on the reservation time index at startup and topped up as time
+ * moves on, and {@link ReservationChangedEvent}s keep it current in between. Due reminders go out in batches
+ * and are marked as sent in the database, so a restart neither repeats nor loses them; reminders that came due
+ * while the application was down go out on the first tick.
+ */
+@Component
+@Slf4j
+public class ReservationReminderScheduler {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationReminderSink reminderSink;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leadTime;
+    private final Duration horizon;
+    private final int batchSize;
+
+    private final ReminderTimerWheel wheel = new ReminderTimerWheel(Instant.now());
+
+    /**
+     * Reservations starting up to this time have their reminders in the wheel.
+     */
+    private volatile LocalDateTime loadedUntil;
+
+    public ReservationReminderScheduler(ReservationRepository reservationRepository,
+                                        ReservationReminderSink reminderSink,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${reservations.reminders.lead-time:24h}") Duration leadTime,
+                                        @Value("${reservations.reminders.horizon:48h}") Duration horizon,
+                                        @Value("${reservations.reminders.batch-size:200}") int batchSize) {
+        if (horizon.compareTo(ReminderTimerWheel.SPAN) >= 0) {
+            throw new IllegalArgumentException("reservations.reminders.horizon must be shorter than " + ReminderTimerWheel.SPAN);
+        }
+        this.reservationRepository = reservationRepository;
+        this.reminderSink = reminderSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leadTime = leadTime;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = load(now, now.plus(leadTime).plus(horizon));
+        log.info("Reminder wheel loaded {} upcoming reminders.", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getPrevious() != null) {
+            wheel.cancel(event.getPrevious().getId());
+        }
+        ReservationSlot current = event.getCurrent();
+        LocalDateTime until = loadedUntil;
+        // Later reservations are picked up by the next refill
+        if (current != null && until != null && !current.getReservationTime().isAfter(until)
+                && current.getReservationTime().isAfter(LocalDateTime.now())) {
+            schedule(current);
+        }
+    }
+
+    /**
+     * Extends the loaded window so it keeps reaching one horizon ahead.
+     */
+    @Scheduled(fixedDelayString = "${reservations.reminders.refill-interval:PT15M}")
+    public void refill() {
+        LocalDateTime from = loadedUntil;
+        if (from == null) {
+            return;
+        }
+        int loaded = load(from, LocalDateTime.now().plus(leadTime).plus(horizon));
+        if (loaded > 0) {
+            log.debug("Reminder wheel refilled with {} reminders.", loaded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservations.reminders.tick-interval:PT15S}")
+    public void tick() {
+        if (loadedUntil == null) {
+            return;
+        }
+        List<UUID> due = wheel.advance(Instant.now());
+        for (int start = 0; start < due.size(); start += batchSize) {
+            List<UUID> batch = due.subList(start, Math.min(start + batchSize, due.size()));
+            try {
+                fire(batch);
+            } catch (RuntimeException e) {
+                log.error("Sending a batch of {} reminders failed, retrying on the next tick.", batch.size(), e);
+                Instant retryAt = Instant.now().plus(ReminderTimerWheel.TICK);
+                batch.forEach(reservationId -> wheel.schedule(reservationId, retryAt));
+            }
+        }
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    private void fire(List<UUID> reservationIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ReservationReminder> reminders = reservationRepository.findUnsentReminders(reservationIds);
+            if (reminders.isEmpty()) {
+                return;
+            }
+            reminderSink.send(reminders);
+            reservationRepository.markRemindersSent(
+                    reminders.stream().map(ReservationReminder::getReservationId).toList(), LocalDateTime.now());
+            log.info("Sent {} reservation reminders.", reminders.size());
+        });
+    }
+
+    private synchronized int load(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+        List<ReservationSlot> slots = reservationRepository.findUnremindedSlotsBetween(from, to);
+        slots.forEach(this::schedule);
+        loadedUntil = to;
+        return slots.size();
+    }
+
+    private void schedule(ReservationSlot slot) {
+        Instant fireAt = slot.getReservationTime().minus(leadTime).atZone(ZoneId.systemDefault()).toInstant();
+        wheel.schedule(slot.getId(), fireAt);
+    }
+
+}
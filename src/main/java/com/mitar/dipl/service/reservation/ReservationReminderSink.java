@@ -0,0 +1,14 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.dto.reservation.ReservationReminder;
+
+import java.util.List;
+
+/**
+ * Delivers reservation reminders. Reminders are marked as sent once this returns without throwing.
+ */
+public interface ReservationReminderSink {
+
+    void send(List<ReservationReminder> reminders);
+
+}
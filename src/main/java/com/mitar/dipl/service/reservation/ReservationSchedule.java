@@ -0,0 +1,45 @@
+package com.mitar.dipl.service.reservation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Business-hour and duration rules shared by everything that reasons about reservation times.
+ */
+public final class ReservationSchedule {
+
+    public static final LocalTime OPENING_TIME = LocalTime.of(10, 0);
+    public static final LocalTime CLOSING_TIME = LocalTime.of(22, 0);
+    public static final Duration BUFFER_DURATION = Duration.ofMinutes(30);
+    public static final Duration RESERVATION_DURATION = Duration.ofHours(2);
+
+    /**
+     * Two reservations on the same table conflict when their start times are at most this far apart.
+     */
+    public static final Duration CONFLICT_WINDOW = RESERVATION_DURATION.plus(BUFFER_DURATION);
+
+    private ReservationSchedule() {
+    }
+
+    /**
+     * Earliest start time that would conflict with a reservation starting at the given time.
+     *
+     * @param start The reservation start time.
+     * @return Lower bound (inclusive) of the conflict window.
+     */
+    public static LocalDateTime conflictWindowStart(LocalDateTime start) {
+        return start.minus(CONFLICT_WINDOW);
+    }
+
+    /**
+     * Latest start time that would conflict with a reservation starting at the given time.
+     *
+     * @param start The reservation start time.
+     * @return Upper bound (inclusive) of the conflict window.
+     */
+    public static LocalDateTime conflictWindowEnd(LocalDateTime start) {
+        return start.plus(CONFLICT_WINDOW);
+    }
+
+}
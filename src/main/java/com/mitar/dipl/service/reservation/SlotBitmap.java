@@ -0,0 +1,114 @@
+package com.mitar.dipl.service.reservation;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mitar.dipl.service.reservation.ReservationSchedule.*;
+
+/**
+ * Encodes one business day of a table as a bitmap of 15-minute start slots between
+ * {@link ReservationSchedule#OPENING_TIME} and {@link ReservationSchedule#CLOSING_TIME}.
+ * Bit {@code i} stands for a reservation starting at {@code OPENING_TIME + i * SLOT_DURATION}.
+ */
+public final class SlotBitmap {
+
+    public static final Duration SLOT_DURATION = Duration.ofMinutes(15);
+
+    private static final int SLOT_MINUTES = (int) SLOT_DURATION.toMinutes();
+    private static final int OPENING_MINUTE = OPENING_TIME.getHour() * 60 + OPENING_TIME.getMinute();
+    private static final int WINDOW_MINUTES = (int) CONFLICT_WINDOW.toMinutes();
+
+    public static final int SLOTS_PER_DAY = (int) (Duration.between(OPENING_TIME, CLOSING_TIME).toMinutes() / SLOT_MINUTES);
+
+    /**
+     * Start slots a reservation may use at all: it has to end, buffer included, by closing time.
+     */
+    public static final long BOOKABLE_STARTS = range(0,
+            (int) (Duration.between(OPENING_TIME, CLOSING_TIME).minus(CONFLICT_WINDOW).toMinutes() / SLOT_MINUTES));
+
+    static {
+        if (SLOTS_PER_DAY > Long.SIZE) {
+            throw new IllegalStateException("Business day does not fit into a 64-slot bitmap.");
+        }
+    }
+
+    private SlotBitmap() {
+    }
+
+    /**
+     * Returns the start slots that conflict with an existing reservation starting at the given time.
+     *
+     * @param start Start time of the existing reservation.
+     * @return Bitmap of blocked start slots.
+     */
+    public static long blockedBy(LocalTime start) {
+        int offset = start.getHour() * 60 + start.getMinute() - OPENING_MINUTE;
+        int first = Math.floorDiv(offset - WINDOW_MINUTES + SLOT_MINUTES - 1, SLOT_MINUTES);
+        int last = Math.floorDiv(offset + WINDOW_MINUTES, SLOT_MINUTES);
+        return range(first, last);
+    }
+
+    /**
+     * Returns the slot a start time falls on, or -1 when it is not aligned to a slot inside business hours.
+     *
+     * @param time The start time.
+     * @return Slot index or -1.
+     */
+    public static int slotOf(LocalTime time) {
+        int offset = time.getHour() * 60 + time.getMinute() - OPENING_MINUTE;
+        if (offset < 0 || offset % SLOT_MINUTES != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        int slot = offset / SLOT_MINUTES;
+        return slot < SLOTS_PER_DAY ? slot : -1;
+    }
+
+    /**
+     * Returns the slot a time falls into, rounding down to the slot start, or -1 outside business hours.
+     *
+     * @param time The time.
+     * @return Slot index or -1.
+     */
+    public static int slotContaining(LocalTime time) {
+        int offset = time.getHour() * 60 + time.getMinute() - OPENING_MINUTE;
+        if (offset < 0) {
+            return -1;
+        }
+        int slot = offset / SLOT_MINUTES;
+        return slot < SLOTS_PER_DAY ? slot : -1;
+    }
+
+    public static LocalTime timeOf(int slot) {
+        return OPENING_TIME.plus(SLOT_DURATION.multipliedBy(slot));
+    }
+
+    /**
+     * Expands a bitmap into the start times it contains, in ascending order.
+     *
+     * @param bitmap The slot bitmap.
+     * @return List of start times.
+     */
+    public static List<LocalTime> toTimes(long bitmap) {
+        List<LocalTime> times = new ArrayList<>(Long.bitCount(bitmap));
+        for (long remaining = bitmap; remaining != 0; remaining &= remaining - 1) {
+            times.add(timeOf(Long.numberOfTrailingZeros(remaining)));
+        }
+        return times;
+    }
+
+    /**
+     * Bitmap with every slot between {@code first} and {@code last} (both inclusive) set, clamped to the day.
+     */
+    static long range(int first, int last) {
+        int from = Math.max(first, 0);
+        int to = Math.min(last, SLOTS_PER_DAY - 1);
+        if (from > to) {
+            return 0L;
+        }
+        long upTo = to == Long.SIZE - 1 ? -1L : (1L << (to + 1)) - 1;
+        return upTo & (-1L << from);
+    }
+
+}
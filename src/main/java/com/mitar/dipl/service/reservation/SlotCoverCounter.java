@@ -0,0 +1,175 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Restaurant-wide count of arriving guests (covers) per 15-minute slot, capped at
+ * {@code reservations.max-covers-per-slot} because the kitchen can only take so many arrivals at once.
+ * A limit of 0 turns the cap off.
+ * <p>
+ * Counters are loaded from upcoming reservations on startup. Covers are taken inside the booking transaction
+ * and handed back if it rolls back; covers freed by a delete or a move are returned only after commit, so a
+ * slot is never briefly over the cap.
+ */
+@Component
+@Slf4j
+public class SlotCoverCounter {
+
+    private final ReservationRepository reservationRepository;
+    private final int maxCoversPerSlot;
+
+    private final Map<LocalDate, AtomicIntegerArray> coversByDay = new ConcurrentHashMap<>();
+
+    public SlotCoverCounter(ReservationRepository reservationRepository,
+                            @Value("${reservations.max-covers-per-slot:0}") int maxCoversPerSlot) {
+        this.reservationRepository = reservationRepository;
+        this.maxCoversPerSlot = maxCoversPerSlot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<ReservationSlot> slots = reservationRepository.findSlotsFrom(LocalDate.now().atStartOfDay());
+        for (ReservationSlot slot : slots) {
+            int index = SlotBitmap.slotContaining(slot.getReservationTime().toLocalTime());
+            if (index >= 0) {
+                covers(slot.getReservationTime().toLocalDate()).addAndGet(index, slot.getNumberOfGuests());
+            }
+        }
+        log.info("Slot cover counters loaded from {} upcoming reservations.", slots.size());
+    }
+
+    public int getMaxCoversPerSlot() {
+        return maxCoversPerSlot;
+    }
+
+    public boolean isLimited() {
+        return maxCoversPerSlot > 0;
+    }
+
+    /**
+     * Takes covers in the slot of the given time for the current transaction, returning them on rollback.
+     *
+     * @param time   The reservation time.
+     * @param guests The number of covers to take.
+     * @return True if the slot had room (or there is no limit), otherwise false.
+     */
+    public boolean tryReserve(LocalDateTime time, int guests) {
+        int index = SlotBitmap.slotContaining(time.toLocalTime());
+        if (index < 0 || guests <= 0) {
+            return true;
+        }
+
+        AtomicIntegerArray covers = covers(time.toLocalDate());
+        int current;
+        do {
+            current = covers.get(index);
+            if (isLimited() && current + guests > maxCoversPerSlot) {
+                return false;
+            }
+        } while (!covers.compareAndSet(index, current, current + guests));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        covers.addAndGet(index, -guests);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Returns covers to the slot of the given time once the current transaction commits.
+     *
+     * @param time   The reservation time.
+     * @param guests The number of covers to return.
+     */
+    public void releaseAfterCommit(LocalDateTime time, int guests) {
+        int index = SlotBitmap.slotContaining(time.toLocalTime());
+        if (index < 0 || guests <= 0) {
+            return;
+        }
+
+        AtomicIntegerArray covers = covers(time.toLocalDate());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            covers.addAndGet(index, -guests);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                covers.addAndGet(index, -guests);
+            }
+        });
+    }
+
+    /**
+     * Returns the start slots of a day that still have room for a party, as a {@link SlotBitmap}.
+     *
+     * @param day    The day.
+     * @param guests The party size.
+     * @return Bitmap of slots with enough covers left.
+     */
+    public long slotsWithRoom(LocalDate day, int guests) {
+        if (!isLimited()) {
+            return -1L;
+        }
+        AtomicIntegerArray covers = coversByDay.get(day);
+        long slots = 0L;
+        for (int index = 0; index < SlotBitmap.SLOTS_PER_DAY; index++) {
+            int taken = covers != null ? covers.get(index) : 0;
+            if (taken + guests <= maxCoversPerSlot) {
+                slots |= 1L << index;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Returns how many more covers a slot can take.
+     *
+     * @param day  The day.
+     * @param slot The {@link SlotBitmap} slot.
+     * @return Covers left, or {@link Integer#MAX_VALUE} if there is no limit.
+     */
+    public int coversLeft(LocalDate day, int slot) {
+        if (!isLimited()) {
+            return Integer.MAX_VALUE;
+        }
+        AtomicIntegerArray covers = coversByDay.get(day);
+        return Math.max(0, maxCoversPerSlot - (covers != null ? covers.get(slot) : 0));
+    }
+
+    /**
+     * Drops the counters of past days.
+     */
+    @Scheduled(cron = "${reservations.covers.eviction-cron:0 5 4 * * *}")
+    public void evictPast() {
+        LocalDate today = LocalDate.now();
+        coversByDay.keySet().removeIf(day -> day.isBefore(today));
+    }
+
+    private AtomicIntegerArray covers(LocalDate day) {
+        return coversByDay.computeIfAbsent(day, d -> new AtomicIntegerArray(SlotBitmap.SLOTS_PER_DAY));
+    }
+
+}
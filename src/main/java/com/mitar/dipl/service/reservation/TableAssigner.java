@@ -0,0 +1,166 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.entity.TableEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Picks the tables for an automatically assigned reservation.
+ * <p>
+ * A single table is preferred: the smallest free table that seats the whole party. Only when no single table is
+ * large enough are free tables combined, up to {@code reservations.auto-assign.max-combined-tables} of them. The
+ * combination with the fewest empty seats wins, then the one with fewer tables, then the one with the lowest
+ * table numbers.
+ */
+@Component
+@Slf4j
+public class TableAssigner {
+
+    private static final Comparator<TableEntity> BY_TABLE_NUMBER = Comparator.comparing(TableEntity::getTableNumber);
+
+    private final int maxCombinedTables;
+    private final Duration timeBudget;
+
+    public TableAssigner(@Value("${reservations.auto-assign.max-combined-tables:3}") int maxCombinedTables,
+                         @Value("${reservations.auto-assign.time-budget:50ms}") Duration timeBudget) {
+        this.maxCombinedTables = maxCombinedTables;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Chooses the best table, or the best combination of tables, for a party.
+     *
+     * @param freeTables The tables that are free at the requested time.
+     * @param partySize  The number of guests.
+     * @return The chosen tables ordered by table number, or an empty list if nothing fits.
+     */
+    public List<TableEntity> assign(Collection<TableEntity> freeTables, int partySize) {
+        TableEntity single = bestSingleTable(freeTables, partySize);
+        if (single != null) {
+            return List.of(single);
+        }
+        if (maxCombinedTables < 2) {
+            return List.of();
+        }
+        return bestCombination(freeTables, partySize);
+    }
+
+    /**
+     * Smallest table that seats the party; among equal capacities the lowest table number.
+     */
+    private static TableEntity bestSingleTable(Collection<TableEntity> freeTables, int partySize) {
+        TreeMap<Integer, TableEntity> byCapacity = new TreeMap<>();
+        for (TableEntity table : freeTables) {
+            byCapacity.merge(table.getCapacity(), table,
+                    (current, candidate) -> BY_TABLE_NUMBER.compare(candidate, current) < 0 ? candidate : current);
+        }
+        Map.Entry<Integer, TableEntity> fit = byCapacity.ceilingEntry(partySize);
+        return fit != null ? fit.getValue() : null;
+    }
+
+    /**
+     * Searches the subsets of free tables by capacity, since tables of one capacity are interchangeable and the
+     * lowest numbers among them are always the ones taken. A subset that already seats the party is never
+     * extended, which also guarantees every chosen table gets at least one guest, and a branch is dropped as soon
+     * as even its largest remaining tables cannot seat the party. When the time budget runs out the best
+     * combination found so far is kept.
+     */
+    private List<TableEntity> bestCombination(Collection<TableEntity> freeTables, int partySize) {
+        TreeMap<Integer, List<TableEntity>> byCapacity = new TreeMap<>(Comparator.reverseOrder());
+        for (TableEntity table : freeTables) {
+            byCapacity.computeIfAbsent(table.getCapacity(), capacity -> new ArrayList<>()).add(table);
+        }
+        byCapacity.values().forEach(tables -> tables.sort(BY_TABLE_NUMBER));
+
+        CombinationSearch search = new CombinationSearch(new ArrayList<>(byCapacity.values()), partySize,
+                System.nanoTime() + timeBudget.toNanos());
+        search.search(0, 0, 0);
+        if (search.outOfTime) {
+            log.warn("Table combination search for {} guests among {} tables hit its time budget.",
+                    partySize, freeTables.size());
+        }
+        return search.best;
+    }
+
+    private final class CombinationSearch {
+
+        private final List<List<TableEntity>> groups;
+        private final int[] taken;
+        private final int partySize;
+        private final long deadline;
+
+        private List<TableEntity> best = List.of();
+        private int bestWaste = Integer.MAX_VALUE;
+        private boolean outOfTime;
+
+        private CombinationSearch(List<List<TableEntity>> groups, int partySize, long deadline) {
+            this.groups = groups;
+            this.taken = new int[groups.size()];
+            this.partySize = partySize;
+            this.deadline = deadline;
+        }
+
+        private void search(int group, int tables, int seats) {
+            if (seats >= partySize) {
+                consider(seats - partySize);
+                return;
+            }
+            if (group == groups.size() || tables == maxCombinedTables || outOfTime) {
+                return;
+            }
+            // Without empty seats to win back, one more table than the best can only lose
+            if (bestWaste == 0 && tables >= best.size()) {
+                return;
+            }
+            // Groups are ordered by capacity, largest first
+            int capacity = groups.get(group).get(0).getCapacity();
+            if (seats + (maxCombinedTables - tables) * capacity < partySize) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                outOfTime = true;
+                return;
+            }
+
+            int most = Math.min(groups.get(group).size(), maxCombinedTables - tables);
+            for (int count = 1; count <= most; count++) {
+                taken[group] = count;
+                search(group + 1, tables + count, seats + count * capacity);
+                if (seats + count * capacity >= partySize) {
+                    break;
+                }
+            }
+            taken[group] = 0;
+            search(group + 1, tables, seats);
+        }
+
+        private void consider(int waste) {
+            List<TableEntity> candidate = new ArrayList<>();
+            for (int group = 0; group < groups.size(); group++) {
+                candidate.addAll(groups.get(group).subList(0, taken[group]));
+            }
+            candidate.sort(BY_TABLE_NUMBER);
+            if (waste < bestWaste || (waste == bestWaste && (candidate.size() < best.size()
+                    || (candidate.size() == best.size() && lowerNumbers(candidate, best))))) {
+                best = List.copyOf(candidate);
+                bestWaste = waste;
+            }
+        }
+
+        private static boolean lowerNumbers(List<TableEntity> candidate, List<TableEntity> current) {
+            for (int i = 0; i < candidate.size(); i++) {
+                int order = BY_TABLE_NUMBER.compare(candidate.get(i), current.get(i));
+                if (order != 0) {
+                    return order < 0;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.exception.custom.ConflictException;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.TableRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes booking attempts per table for the rest of the current transaction.
+ * <p>
+ * Callers on this node first queue on an in-JVM striped lock, so only one of them at a time waits on the row lock
+ * in the database. The stripe is taken inside the caller's transaction, so queued callers do hold their pooled
+ * connection while they wait, for at most {@code reservations.locking.wait-timeout}; the pool has to allow for that.
+ * The table rows are then locked with {@code SELECT ... FOR UPDATE}, which serializes callers across all
+ * application nodes sharing the database. That alone does not make bookings correct across nodes: the conflict
+ * check made while holding the row lock has to read the database, since in-memory state such as
+ * {@link ReservationIntervalIndex} only knows this node's bookings. Both locks are released when the surrounding transaction completes, after
+ * the after-commit listeners have run.
+ */
+@Component
+@Slf4j
+public class TableBookingLock {
+
+    private final TableRepository tableRepository;
+    private final ReentrantLock[] stripes;
+    private final Duration waitTimeout;
+
+    public TableBookingLock(TableRepository tableRepository,
+                            @Value("${reservations.locking.stripes:64}") int stripeCount,
+                            @Value("${reservations.locking.wait-timeout:5s}") Duration waitTimeout) {
+        this.tableRepository = tableRepository;
+        this.waitTimeout = waitTimeout;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks a single table for the current transaction.
+     *
+     * @param tableId The UUID of the table.
+     * @return The locked table, or empty if it does not exist.
+     */
+    public Optional<TableEntity> lock(UUID tableId) {
+        return lockAll(List.of(tableId)).stream().findFirst();
+    }
+
+    /**
+     * Locks several tables for the current transaction, always in the same order to avoid deadlocks.
+     *
+     * @param tableIds The UUIDs of the tables.
+     * @return The locked tables that exist, ordered by ID.
+     */
+    public List<TableEntity> lockAll(Collection<UUID> tableIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Table booking locks require an active transaction.");
+        }
+
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        for (UUID tableId : tableIds) {
+            stripeIndexes.add(Math.floorMod(tableId.hashCode(), stripes.length));
+        }
+
+        Deque<ReentrantLock> acquired = new ArrayDeque<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Released last, after the after-commit listeners have brought the in-memory indexes up to date
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                while (!acquired.isEmpty()) {
+                    acquired.pop().unlock();
+                }
+            }
+        });
+
+        for (Integer index : stripeIndexes) {
+            ReentrantLock stripe = stripes[index];
+            if (!tryLock(stripe)) {
+                log.warn("Timed out waiting for booking lock on tables {}", tableIds);
+                throw new ConflictException("The table is busy with another booking, please try again.");
+            }
+            acquired.push(stripe);
+        }
+
+        return tableRepository.findAllByIdForUpdate(new TreeSet<>(tableIds));
+    }
+
+    private boolean tryLock(ReentrantLock stripe) {
+        try {
+            return stripe.tryLock(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
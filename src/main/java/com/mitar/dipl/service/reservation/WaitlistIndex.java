@@ -0,0 +1,137 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.entity.WaitlistEntry;
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import com.mitar.dipl.repository.WaitlistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-memory index of waiting parties, bucketed by day and 15-minute slot and then keyed by party size.
+ * <p>
+ * Finding the party to offer a freed table is a {@link TreeMap#floorEntry} lookup: the largest party that still
+ * fits the table, first come first served among parties of the same size.
+ */
+@Component
+@Slf4j
+public class WaitlistIndex {
+
+    private final WaitlistRepository waitlistRepository;
+
+    private final Map<SlotKey, TreeMap<Integer, Deque<UUID>>> parties = new HashMap<>();
+    private final Map<UUID, Waiting> waitingById = new HashMap<>();
+
+    public WaitlistIndex(WaitlistRepository waitlistRepository) {
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<WaitlistEntry> entries = waitlistRepository.findAllByStatusAndRequestedTimeGreaterThanEqualOrderByCreatedAtAsc(
+                WaitlistStatus.WAITING, LocalDateTime.now());
+        entries.forEach(entry -> add(entry.getId(), entry.getRequestedTime(), entry.getNumberOfGuests()));
+        log.info("Waitlist index loaded {} waiting parties.", entries.size());
+    }
+
+    /**
+     * Adds a party at the back of its queue.
+     */
+    public synchronized void add(UUID entryId, LocalDateTime requestedTime, int numberOfGuests) {
+        insert(entryId, requestedTime, numberOfGuests, false);
+    }
+
+    /**
+     * Puts a party back at the front of its queue after an offer could not be made.
+     */
+    public synchronized void addFirst(UUID entryId, LocalDateTime requestedTime, int numberOfGuests) {
+        insert(entryId, requestedTime, numberOfGuests, true);
+    }
+
+    public synchronized void remove(UUID entryId) {
+        Waiting waiting = waitingById.remove(entryId);
+        if (waiting == null) {
+            return;
+        }
+        TreeMap<Integer, Deque<UUID>> bySize = parties.get(waiting.key());
+        Deque<UUID> queue = bySize.get(waiting.numberOfGuests());
+        queue.remove(entryId);
+        if (queue.isEmpty()) {
+            bySize.remove(waiting.numberOfGuests());
+            if (bySize.isEmpty()) {
+                parties.remove(waiting.key());
+            }
+        }
+    }
+
+    /**
+     * Takes the largest waiting party of the slot that fits at a table of the given capacity.
+     *
+     * @param day      The day.
+     * @param slot     The {@link SlotBitmap} slot.
+     * @param capacity The capacity of the freed table.
+     * @return ID of the waitlist entry, or empty if no party fits.
+     */
+    public synchronized Optional<UUID> pollBest(LocalDate day, int slot, int capacity) {
+        TreeMap<Integer, Deque<UUID>> bySize = parties.get(new SlotKey(day, slot));
+        if (bySize == null) {
+            return Optional.empty();
+        }
+        Map.Entry<Integer, Deque<UUID>> fit = bySize.floorEntry(capacity);
+        if (fit == null) {
+            return Optional.empty();
+        }
+        UUID entryId = fit.getValue().pollFirst();
+        waitingById.remove(entryId);
+        if (fit.getValue().isEmpty()) {
+            bySize.remove(fit.getKey());
+            if (bySize.isEmpty()) {
+                parties.remove(new SlotKey(day, slot));
+            }
+        }
+        return Optional.of(entryId);
+    }
+
+    /**
+     * Drops parties whose requested time has passed.
+     */
+    public synchronized void evictBefore(LocalDateTime time) {
+        waitingById.values().stream()
+                .filter(waiting -> waiting.requestedTime().isBefore(time))
+                .map(Waiting::entryId)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public synchronized int size() {
+        return waitingById.size();
+    }
+
+    private void insert(UUID entryId, LocalDateTime requestedTime, int numberOfGuests, boolean first) {
+        int slot = SlotBitmap.slotContaining(requestedTime.toLocalTime());
+        if (slot < 0 || waitingById.containsKey(entryId)) {
+            return;
+        }
+        SlotKey key = new SlotKey(requestedTime.toLocalDate(), slot);
+        Deque<UUID> queue = parties.computeIfAbsent(key, k -> new TreeMap<>())
+                .computeIfAbsent(numberOfGuests, size -> new ArrayDeque<>());
+        if (first) {
+            queue.addFirst(entryId);
+        } else {
+            queue.addLast(entryId);
+        }
+        waitingById.put(entryId, new Waiting(entryId, key, requestedTime, numberOfGuests));
+    }
+
+    private record SlotKey(LocalDate day, int slot) {
+    }
+
+    private record Waiting(UUID entryId, SlotKey key, LocalDateTime requestedTime, int numberOfGuests) {
+    }
+
+}
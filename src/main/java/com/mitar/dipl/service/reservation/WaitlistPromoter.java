@@ -0,0 +1,185 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.event.ReservationChangedEvent;
+import com.mitar.dipl.event.ReservationHoldEndedEvent;
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.exception.custom.ConflictException;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationHoldDto;
+import com.mitar.dipl.model.dto.reservation.ReservationSlot;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.model.entity.WaitlistEntry;
+import com.mitar.dipl.model.entity.enums.WaitlistStatus;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.repository.WaitlistRepository;
+import com.mitar.dipl.service.ReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offers freed tables to waiting parties.
+ * <p>
+ * A cancelled or moved reservation, or a hold that ends without becoming a reservation, frees its table around
+ * that time. For each start slot the freed table could now serve, nearest first, the {@link WaitlistIndex} is
+ * asked for the largest party that fits both the table and the covers the slot has left under
+ * {@code reservations.max-covers-per-slot}; a hold takes no covers, so a larger party could not confirm it. The
+ * first party that can actually be seated gets a hold on the table as a tentative booking, which the party
+ * confirms through the hold endpoints. Matching runs on a single background thread, outside the transaction that
+ * freed the table.
+ */
+@Component
+@Slf4j
+public class WaitlistPromoter {
+
+    private final WaitlistIndex waitlistIndex;
+    private final WaitlistRepository waitlistRepository;
+    private final TableRepository tableRepository;
+    private final ReservationService reservationService;
+    private final SlotCoverCounter slotCoverCounter;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-promoter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WaitlistPromoter(WaitlistIndex waitlistIndex, WaitlistRepository waitlistRepository,
+                            TableRepository tableRepository, ReservationService reservationService,
+                            SlotCoverCounter slotCoverCounter) {
+        this.waitlistIndex = waitlistIndex;
+        this.waitlistRepository = waitlistRepository;
+        this.tableRepository = tableRepository;
+        this.reservationService = reservationService;
+        this.slotCoverCounter = slotCoverCounter;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSlot previous = event.getPrevious();
+        ReservationSlot current = event.getCurrent();
+        if (previous == null) {
+            return;
+        }
+        if (current != null && current.getTableId().equals(previous.getTableId())
+                && current.getReservationTime().equals(previous.getReservationTime())) {
+            return;
+        }
+        executor.execute(() -> promote(previous.getTableId(), previous.getReservationTime()));
+    }
+
+    @EventListener
+    public void onHoldEnded(ReservationHoldEndedEvent event) {
+        executor.execute(() -> {
+            settleOffer(event);
+            if (event.getOutcome() != ReservationHoldEndedEvent.Outcome.CONFIRMED) {
+                promote(event.getHold().tableId(), event.getHold().reservationTime());
+            }
+        });
+    }
+
+    /**
+     * Records how an offer made to a waiting party ended.
+     */
+    private void settleOffer(ReservationHoldEndedEvent event) {
+        waitlistRepository.findByHoldId(event.getHold().id())
+                .filter(entry -> entry.getStatus() == WaitlistStatus.OFFERED)
+                .ifPresent(entry -> {
+                    entry.setStatus(switch (event.getOutcome()) {
+                        case CONFIRMED -> WaitlistStatus.BOOKED;
+                        case RELEASED -> WaitlistStatus.CANCELLED;
+                        case EXPIRED -> WaitlistStatus.EXPIRED;
+                    });
+                    waitlistRepository.save(entry);
+                    log.info("Waitlist offer {} ended as {}.", entry.getId(), entry.getStatus());
+                });
+    }
+
+    private void promote(UUID tableId, LocalDateTime freedTime) {
+        try {
+            if (freedTime.isBefore(LocalDateTime.now())) {
+                return;
+            }
+            TableEntity table = tableRepository.findById(tableId).orElse(null);
+            if (table == null || !Boolean.TRUE.equals(table.getIsAvailable())) {
+                return;
+            }
+
+            LocalDate day = freedTime.toLocalDate();
+            int freedSlot = SlotBitmap.slotContaining(freedTime.toLocalTime());
+            if (freedSlot < 0) {
+                return;
+            }
+            long candidates = SlotBitmap.blockedBy(freedTime.toLocalTime()) & SlotBitmap.BOOKABLE_STARTS;
+            for (int distance = 0; distance < SlotBitmap.SLOTS_PER_DAY && candidates != 0; distance++) {
+                for (int slot : distance == 0 ? new int[]{freedSlot} : new int[]{freedSlot - distance, freedSlot + distance}) {
+                    if (slot < 0 || slot >= SlotBitmap.SLOTS_PER_DAY || (candidates & (1L << slot)) == 0) {
+                        continue;
+                    }
+                    candidates &= ~(1L << slot);
+                    if (offer(table, day, slot)) {
+                        return;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Waitlist promotion for table {} at {} failed.", tableId, freedTime, e);
+        }
+    }
+
+    /**
+     * Offers the table to the best waiting party of one slot.
+     *
+     * @return True if a party got the table, otherwise false.
+     */
+    private boolean offer(TableEntity table, LocalDate day, int slot) {
+        int seats = Math.min(table.getCapacity(), slotCoverCounter.coversLeft(day, slot));
+        if (seats < 1) {
+            return false;
+        }
+        UUID entryId = waitlistIndex.pollBest(day, slot, seats).orElse(null);
+        if (entryId == null) {
+            return false;
+        }
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+            return false;
+        }
+
+        ReservationHoldCreateDto holdCreateDto = new ReservationHoldCreateDto();
+        holdCreateDto.setTableId(table.getId().toString());
+        holdCreateDto.setReservationTime(entry.getRequestedTime());
+        holdCreateDto.setNumberOfGuests(entry.getNumberOfGuests());
+
+        ReservationHoldDto hold;
+        try {
+            hold = reservationService.placeHold(holdCreateDto);
+        } catch (ConflictException | BadRequestException e) {
+            // The table is still taken at this time; the party keeps its place in line
+            waitlistIndex.addFirst(entry.getId(), entry.getRequestedTime(), entry.getNumberOfGuests());
+            return false;
+        }
+
+        entry.setStatus(WaitlistStatus.OFFERED);
+        entry.setHoldId(UUID.fromString(hold.getId()));
+        entry.setOfferedTableId(table.getId());
+        entry.setOfferedAt(LocalDateTime.now());
+        waitlistRepository.save(entry);
+        log.info("Offered table {} at {} to waitlist entry {}.", table.getTableNumber(), entry.getRequestedTime(), entry.getId());
+        return true;
+    }
+
+}
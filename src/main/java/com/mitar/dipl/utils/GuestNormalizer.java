@@ -0,0 +1,99 @@
+package com.mitar.dipl.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes guest contact details into the canonical forms stored in the shadow search columns.
+ */
+public class GuestNormalizer {
+
+    /**
+     * Country calling code assumed for numbers typed in national format (leading 0).
+     */
+    public static final String DEFAULT_COUNTRY_CODE = "381";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("^[+0-9()\\-./ ]+$");
+
+    /**
+     * Lower-cases and trims an email address.
+     *
+     * @param email The raw email.
+     * @return Normalized email, or null if blank.
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a phone number to E.164, so "+381 64 123", "00381 64 123" and "064 123" become "+38164123".
+     *
+     * @param phone The raw phone number.
+     * @return Phone number in E.164 format, or null if it has no digits.
+     */
+    public static String normalizePhone(String phone) {
+        String digits = phoneDigits(phone);
+        return digits == null ? null : "+" + digits;
+    }
+
+    /**
+     * Same as {@link #normalizePhone(String)} without the leading plus, used for partial matching.
+     *
+     * @param phone The raw (possibly partial) phone number.
+     * @return Digits with the country code applied, or null if it has no digits.
+     */
+    public static String phoneDigits(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        boolean international = phone.trim().startsWith("+");
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        if (!international) {
+            if (digits.startsWith("00")) {
+                digits = digits.substring(2);
+            } else if (digits.startsWith("0")) {
+                digits = DEFAULT_COUNTRY_CODE + digits.substring(1);
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Folds a name for matching: strips accents, lower-cases and collapses punctuation and whitespace,
+     * so "Ana-Marija  Šimić" becomes "ana marija simic".
+     *
+     * @param name The raw name.
+     * @return Folded name, or null if blank.
+     */
+    public static String foldName(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.replace('đ', 'd').replace('Đ', 'D'), Normalizer.Form.NFD);
+        String folded = NON_ALPHANUMERIC.matcher(DIACRITICS.matcher(decomposed).replaceAll(""))
+                .replaceAll(" ")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+        return folded.isEmpty() ? null : folded;
+    }
+
+    /**
+     * Checks whether a search term looks like (part of) a phone number.
+     *
+     * @param term The search term.
+     * @return True if it only contains digits and phone punctuation.
+     */
+    public static boolean isPhoneLike(String term) {
+        return term != null && PHONE_LIKE.matcher(term.trim()).matches() && term.chars().anyMatch(Character::isDigit);
+    }
+
+}
@@ -2,6 +2,7 @@ package com.mitar.dipl.utils;
 
 import com.mitar.dipl.exception.custom.InvalidUUIDException;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class UUIDUtils {
@@ -14,4 +15,28 @@ public class UUIDUtils {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Converts a UUID to the 16-byte big-endian form stored in {@code BINARY(16)} columns.
+     */
+    public static byte[] toBytes(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Reads a UUID from its 16-byte big-endian {@code BINARY(16)} form.
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+}
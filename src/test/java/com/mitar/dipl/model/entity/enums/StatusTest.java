@@ -0,0 +1,33 @@
+package com.mitar.dipl.model.entity.enums;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatusTest {
+
+    @ParameterizedTest(name = "{0} -> {1}: {2}")
+    @CsvSource({
+            "PENDING, PENDING, true",
+            "PENDING, IN_PROGRESS, true",
+            "PENDING, COMPLETED, true",
+            "PENDING, CANCELLED, true",
+            "IN_PROGRESS, PENDING, false",
+            "IN_PROGRESS, IN_PROGRESS, true",
+            "IN_PROGRESS, COMPLETED, true",
+            "IN_PROGRESS, CANCELLED, true",
+            "COMPLETED, PENDING, false",
+            "COMPLETED, IN_PROGRESS, false",
+            "COMPLETED, COMPLETED, true",
+            "COMPLETED, CANCELLED, false",
+            "CANCELLED, PENDING, false",
+            "CANCELLED, IN_PROGRESS, false",
+            "CANCELLED, COMPLETED, false",
+            "CANCELLED, CANCELLED, true"
+    })
+    void followsTheOrderLifecycle(Status from, Status to, boolean allowed) {
+        assertEquals(allowed, from.canTransitionTo(to));
+    }
+
+}
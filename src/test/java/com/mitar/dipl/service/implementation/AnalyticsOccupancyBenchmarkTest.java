@@ -0,0 +1,102 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.analytics.OccupancyHeatmapDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.service.AnalyticsService;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Computes the occupancy heatmap over a year of reservations on 100 tables, which has to finish within a second.
+ * Run with {@code mvn test -Dbenchmarks=true -Dtest=AnalyticsOccupancyBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AnalyticsOccupancyBenchmarkTest {
+
+    private static final int TABLES = 100;
+    private static final int DAYS = 365;
+    private static final int FIRST_TABLE_NUMBER = 2000;
+    private static final int[] START_HOURS = {10, 13, 16, 19};
+    private static final Duration LIMIT = Duration.ofSeconds(1);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void computesAYearOfOccupancyOnAHundredTablesWithinASecond() {
+        // Far from the days other tests book, so the measured year holds only these reservations
+        LocalDate from = LocalDate.now().plusYears(70);
+        LocalDate to = from.plusDays(DAYS - 1);
+        int reservations = insertReservations(newTables(), from);
+
+        // Warm the query and the sweep before measuring
+        analyticsService.getOccupancy(from, from.plusDays(7));
+
+        long started = System.nanoTime();
+        OccupancyHeatmapDto heatmap = analyticsService.getOccupancy(from, to);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        log.info("Occupancy heatmap: {} reservations on {} tables over {} days in {} ms",
+                reservations, heatmap.getTables().size(), heatmap.getDays(), elapsed.toMillis());
+        assertTrue(elapsed.compareTo(LIMIT) < 0,
+                "Occupancy of " + reservations + " reservations took " + elapsed.toMillis() + " ms");
+    }
+
+    private List<UUID> newTables() {
+        List<UUID> tableIds = new ArrayList<>(TABLES);
+        for (int i = 0; i < TABLES; i++) {
+            TableEntity table = new TableEntity();
+            table.setTableNumber(FIRST_TABLE_NUMBER + i);
+            table.setCapacity(4);
+            table.setIsAvailable(true);
+            tableIds.add(tableRepository.save(table).getId());
+        }
+        return tableIds;
+    }
+
+    private int insertReservations(List<UUID> tableIds, LocalDate firstDay) {
+        List<Object[]> rows = new ArrayList<>(DAYS * tableIds.size() * START_HOURS.length);
+        for (int day = 0; day < DAYS; day++) {
+            for (UUID tableId : tableIds) {
+                for (int hour : START_HOURS) {
+                    rows.add(new Object[]{
+                            UUIDUtils.toBytes(UUID.randomUUID()),
+                            Timestamp.valueOf(firstDay.plusDays(day).atTime(hour, 0)),
+                            2,
+                            UUIDUtils.toBytes(tableId)
+                    });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO reservations (id, reservation_time, number_of_guests, table_id, deleted) VALUES (?, ?, ?, ?, false)",
+                rows);
+        return rows.size();
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.analytics.OccupancyHeatmapDto;
+import com.mitar.dipl.model.dto.analytics.TableOccupancyDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.service.AnalyticsService;
+import com.mitar.dipl.utils.UUIDUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsServiceTest {
+
+    private static final AtomicInteger TABLE_NUMBERS = new AtomicInteger(1500);
+    private static final AtomicInteger DAYS = new AtomicInteger(0);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TableEntity table;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        table = newTable();
+        // Decades ahead, so no reservation made by another test falls into the measured day
+        day = LocalDate.now().plusYears(50).plusDays(DAYS.getAndIncrement());
+    }
+
+    @Test
+    void overlappingReservationsOnOneTableAreCountedOnce() {
+        insertReservation(day.atTime(12, 0));
+        insertReservation(day.atTime(13, 0));
+
+        TableOccupancyDto occupancy = occupancyOfTable();
+
+        //                               10 11  12   13   14  15 16 17 18 19 20 21
+        assertArrayEquals(new int[]{0, 0, 100, 100, 100, 0, 0, 0, 0, 0, 0, 0}, occupancy.getOccupancyByHour());
+        assertEquals(25, occupancy.getOccupancy());
+    }
+
+    @Test
+    void aReservationCrossingAnHourIsSplitBetweenBothHours() {
+        insertReservation(day.atTime(12, 30));
+
+        //                               10 11  12   13  14 15 16 17 18 19 20 21
+        assertArrayEquals(new int[]{0, 0, 50, 100, 50, 0, 0, 0, 0, 0, 0, 0}, occupancyOfTable().getOccupancyByHour());
+    }
+
+    @Test
+    void minutesAfterClosingAreNotCounted() {
+        insertReservation(day.atTime(20, 30));
+
+        TableOccupancyDto occupancy = occupancyOfTable();
+
+        //                               10 11 12 13 14 15 16 17 18 19  20   21
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 50, 100}, occupancy.getOccupancyByHour());
+        assertEquals(Math.round(90 * 100.0 / (12 * 60)), occupancy.getOccupancy());
+    }
+
+    private TableOccupancyDto occupancyOfTable() {
+        OccupancyHeatmapDto heatmap = analyticsService.getOccupancy(day, day);
+        return heatmap.getTables().stream()
+                .filter(occupancy -> occupancy.getTableId().equals(table.getId().toString()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void insertReservation(LocalDateTime time) {
+        jdbcTemplate.update(
+                "INSERT INTO reservations (id, reservation_time, number_of_guests, table_id, deleted) VALUES (?, ?, ?, ?, false)",
+                UUIDUtils.toBytes(UUID.randomUUID()), Timestamp.valueOf(time), 2, UUIDUtils.toBytes(table.getId()));
+    }
+
+    private TableEntity newTable() {
+        TableEntity newTable = new TableEntity();
+        newTable.setTableNumber(TABLE_NUMBERS.getAndIncrement());
+        newTable.setCapacity(4);
+        newTable.setIsAvailable(true);
+        return tableRepository.save(newTable);
+    }
+
+}
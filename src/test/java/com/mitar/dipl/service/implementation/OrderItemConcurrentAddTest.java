@@ -0,0 +1,93 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.order.OrderCreateDto;
+import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemCreateDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemDto;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.repository.MenuItemRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.OrderItemService;
+import com.mitar.dipl.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Adds commute with each other, so concurrent adds to one order must all land, on a single line per menu item,
+ * with the order totals matching the lines.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderItemConcurrentAddTest {
+
+    private static final int CLIENTS = 16;
+    private static final int ADDS = 200;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentAddsOfTheSameMenuItemAllLand() throws Exception {
+        List<MenuItem> menuItems = menuItemRepository.findAll();
+        MenuItem ordered = menuItems.get(0);
+        MenuItem added = menuItems.get(1);
+
+        HashMap<String, Integer> items = new HashMap<>();
+        items.put(ordered.getId().toString(), 1);
+        OrderCreateDto request = new OrderCreateDto();
+        request.setStatus("PENDING");
+        request.setUserId(userRepository.findAll().get(0).getId().toString());
+        request.setMenuItemIdsAndQuantities(items);
+        OrderDto order = orderService.createOrder(request);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<OrderItemDto>> results = new ArrayList<>(ADDS);
+            for (int i = 0; i < ADDS; i++) {
+                OrderItemCreateDto add = new OrderItemCreateDto();
+                add.setOrderId(order.getId());
+                add.setMenuItemId(added.getId().toString());
+                add.setQuantity(1);
+                results.add(clients.submit(() -> orderItemService.createOrderItem(add)));
+            }
+            for (Future<OrderItemDto> result : results) {
+                result.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        OrderDto stored = orderService.getOrderById(order.getId());
+        assertEquals(2, stored.getOrderItems().size());
+        OrderItemDto line = stored.getOrderItems().stream()
+                .filter(item -> item.getMenuItemId().equals(added.getId().toString()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(ADDS, line.getQuantity());
+        assertEquals(0, added.getPrice().multiply(BigDecimal.valueOf(ADDS)).compareTo(line.getPrice()));
+        assertEquals(ADDS + 1, stored.getItemCount());
+        assertEquals(0, ordered.getPrice().add(line.getPrice()).compareTo(stored.getSubtotal()));
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.order.OrderCreateDto;
+import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.MenuItemRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.OrderService;
+import com.mitar.dipl.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order reads map items and bills to DTOs, and must do so in a single statement however many orders there are.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderReadStatementCountTest {
+
+    private static final int ORDERS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private OrderDto order;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findAll().get(0);
+        List<MenuItem> menuItems = menuItemRepository.findAll().subList(0, 3);
+        for (int i = 0; i < ORDERS; i++) {
+            HashMap<String, Integer> items = new HashMap<>();
+            menuItems.forEach(menuItem -> items.put(menuItem.getId().toString(), 1));
+            OrderCreateDto request = new OrderCreateDto();
+            request.setStatus("PENDING");
+            request.setUserId(user.getId().toString());
+            request.setMenuItemIdsAndQuantities(items);
+            order = orderService.createOrder(request);
+        }
+        StatementCounter.reset();
+    }
+
+    @Test
+    void getAllOrdersIsOneStatement() {
+        List<OrderDto> orders = orderService.getAllOrders();
+
+        assertTrue(orders.size() >= ORDERS);
+        assertTrue(orders.stream().allMatch(dto -> !dto.getOrderItems().isEmpty()));
+        assertEquals(1, StatementCounter.count());
+    }
+
+    @Test
+    void getOrderByIdIsOneStatement() {
+        OrderDto loaded = orderService.getOrderById(order.getId());
+
+        assertEquals(3, loaded.getOrderItems().size());
+        assertEquals(1, StatementCounter.count());
+    }
+
+    @Test
+    void getOrdersByUserIdIsOneStatement() {
+        List<OrderDto> orders = orderService.getOrdersByUserId(user.getId().toString());
+
+        assertFalse(orders.isEmpty());
+        assertEquals(1, StatementCounter.count());
+    }
+
+}
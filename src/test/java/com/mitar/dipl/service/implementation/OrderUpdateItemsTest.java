@@ -0,0 +1,146 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.order.OrderCreateDto;
+import com.mitar.dipl.model.dto.order.OrderDto;
+import com.mitar.dipl.model.dto.order_item.OrderItemDto;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.MenuItemRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.OrderService;
+import com.mitar.dipl.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Updating an order reconciles its items by menu item, so only the items that actually change are written.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderUpdateItemsTest {
+
+    private static final int LINES = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private List<MenuItem> menuItems;
+    private OrderDto order;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findAll().get(0);
+        // The seeded menu is shorter than the order, so the test brings its own dishes
+        menuItems = new ArrayList<>();
+        for (int i = 0; i <= LINES; i++) {
+            menuItems.add(menuItem("Update Test Dish " + i));
+        }
+        order = orderService.createOrder(request(quantities(LINES)));
+    }
+
+    @Test
+    void unchangedLinesCostNoStatements() {
+        OrderDto small = orderService.createOrder(request(quantities(1)));
+
+        int smallOrder = statementsToUpdate(small, quantities(1));
+        int largeOrder = statementsToUpdate(order, quantities(LINES));
+
+        assertEquals(smallOrder, largeOrder);
+    }
+
+    @Test
+    void oneChangedLineWritesOnlyThatLineAndTheOrderTotals() {
+        int unchanged = statementsToUpdate(order, quantities(LINES));
+
+        HashMap<String, Integer> items = quantities(LINES);
+        items.put(menuItems.get(0).getId().toString(), 3);
+        int oneChanged = statementsToUpdate(order, items);
+
+        assertEquals(unchanged + 2, oneChanged);
+    }
+
+    @Test
+    void itemsAreRemovedChangedAndAddedByMenuItem() {
+        HashMap<String, Integer> items = new HashMap<>();
+        items.put(menuItems.get(2).getId().toString(), 4);
+        items.put(menuItems.get(3).getId().toString(), 1);
+        items.put(menuItems.get(4).getId().toString(), 1);
+        items.put(menuItems.get(LINES).getId().toString(), 2);
+
+        OrderDto updated = orderService.updateOrder(order.getId(), request(items));
+
+        Map<String, OrderItemDto> byMenuItem = updated.getOrderItems().stream()
+                .collect(Collectors.toMap(OrderItemDto::getMenuItemId, item -> item));
+        assertEquals(items.keySet(), byMenuItem.keySet());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (MenuItem menuItem : menuItems) {
+            Integer quantity = items.get(menuItem.getId().toString());
+            if (quantity == null) {
+                continue;
+            }
+            OrderItemDto item = byMenuItem.get(menuItem.getId().toString());
+            BigDecimal price = menuItem.getPrice().multiply(BigDecimal.valueOf(quantity));
+            assertEquals(quantity, item.getQuantity());
+            assertEquals(0, price.compareTo(item.getPrice()));
+            subtotal = subtotal.add(price);
+        }
+        assertEquals(8, updated.getItemCount());
+        assertEquals(0, subtotal.compareTo(updated.getSubtotal()));
+
+        OrderDto stored = orderService.getOrderById(order.getId());
+        assertEquals(items.size(), stored.getOrderItems().size());
+        assertEquals(8, stored.getItemCount());
+        assertEquals(0, subtotal.compareTo(stored.getSubtotal()));
+    }
+
+    private int statementsToUpdate(OrderDto target, HashMap<String, Integer> items) {
+        StatementCounter.reset();
+        orderService.updateOrder(target.getId(), request(items));
+        return StatementCounter.count();
+    }
+
+    private HashMap<String, Integer> quantities(int lines) {
+        HashMap<String, Integer> items = new HashMap<>();
+        menuItems.subList(0, lines).forEach(menuItem -> items.put(menuItem.getId().toString(), 1));
+        return items;
+    }
+
+    private MenuItem menuItem(String name) {
+        return menuItemRepository.findByName(name).orElseGet(() -> {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName(name);
+            menuItem.setDescription(name);
+            menuItem.setPrice(BigDecimal.valueOf(5));
+            menuItem.setCategory("Main Course");
+            return menuItemRepository.save(menuItem);
+        });
+    }
+
+    private OrderCreateDto request(HashMap<String, Integer> items) {
+        OrderCreateDto request = new OrderCreateDto();
+        request.setStatus("PENDING");
+        request.setUserId(user.getId().toString());
+        request.setMenuItemIdsAndQuantities(items);
+        return request;
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation_import.ReservationImportErrorDto;
+import com.mitar.dipl.model.dto.reservation_import.ReservationImportResultDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.ReservationImportService;
+import com.mitar.dipl.service.ReservationImportService.Format;
+import com.mitar.dipl.service.ReservationService;
+import com.mitar.dipl.utils.UUIDUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationImportServiceTest {
+
+    private static final String HEADER = "tableId,reservationTime,numberOfGuests,userId,guestName,guestEmail,guestPhone";
+    private static final AtomicInteger TABLE_NUMBERS = new AtomicInteger(600);
+    private static final AtomicInteger DAYS = new AtomicInteger(1000);
+
+    @Autowired
+    private ReservationImportService reservationImportService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TableEntity table;
+    private TableEntity otherTable;
+    private User user;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        table = newTable();
+        otherTable = newTable();
+        user = userRepository.findAll().get(0);
+        // Far enough ahead and apart that no other test books the same user or guest on these days
+        day = LocalDate.now().plusDays(DAYS.getAndAdd(40));
+    }
+
+    @Test
+    void importsCsvInAnyColumnOrderWithQuotedFields() {
+        String csv = String.join("\n",
+                "guestName,guestEmail,guestPhone,numberOfGuests,reservationTime,tableId",
+                "\"Smith, \"\"Jo\"\"\",jo@example.com,+381601234567,2," + day.atTime(12, 0) + "," + table.getId(),
+                "",
+                "Ana,ana@example.com,+381601234568,2," + day.atTime(16, 0) + "," + table.getId());
+
+        ReservationImportResultDto result = importCsv(csv);
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of("Ana", "Smith, \"Jo\""), jdbcTemplate.queryForList(
+                "SELECT guest_name FROM reservations WHERE table_id = ? ORDER BY guest_name", String.class,
+                UUIDUtils.toBytes(table.getId())));
+    }
+
+    @Test
+    void reportsUnparsableAndInvalidCsvRowsByLine() {
+        String csv = String.join("\n",
+                HEADER,
+                table.getId() + ",not-a-time,2,,Jo,jo@example.com,+381601234567",
+                table.getId() + "," + day.atTime(12, 0) + ",2,,,,",
+                table.getId() + "," + day.atTime(21, 0) + ",2,,Jo,jo@example.com,+381601234567",
+                table.getId() + "," + day.atTime(12, 0) + ",2," + user.getId() + ",,,");
+
+        ReservationImportResultDto result = importCsv(csv);
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        Map<Long, String> errors = errorsByLine(result);
+        assertEquals(List.of(2L, 3L, 4L), errors.keySet().stream().sorted().toList());
+        assertTrue(errors.get(2L).startsWith("Could not parse row"));
+        assertEquals("Either userId or guest fields must be filled, not both.", errors.get(3L));
+        assertEquals("Reservation time is outside business hours.", errors.get(4L));
+    }
+
+    @Test
+    void importsNdjsonAndReportsBrokenLines() {
+        String ndjson = String.join("\n",
+                "{\"tableId\":\"" + table.getId() + "\",\"reservationTime\":\"" + day.atTime(12, 0) + "\",\"numberOfGuests\":2,"
+                        + "\"guestName\":\"Jo\",\"guestEmail\":\"jo@example.com\",\"guestPhone\":\"+381601234567\"}",
+                "{\"tableId\":",
+                "{\"tableId\":\"" + table.getId() + "\",\"reservationTime\":\"" + day.atTime(16, 0) + "\",\"numberOfGuests\":2,"
+                        + "\"userId\":\"" + user.getId() + "\"}");
+
+        ReservationImportResultDto result = reservationImportService.importReservations(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), Format.NDJSON);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L), List.copyOf(errorsByLine(result).keySet()));
+    }
+
+    @Test
+    void rejectsOverlapsWithinTheFile() {
+        String csv = String.join("\n",
+                HEADER,
+                guestRow(table, day.atTime(14, 0), "a"),
+                guestRow(table, day.atTime(12, 0), "b"),
+                guestRow(table, day.atTime(16, 30), "c"),
+                guestRow(otherTable, day.atTime(12, 0), "d"));
+
+        ReservationImportResultDto result = importCsv(csv);
+
+        assertEquals(3, result.getImported());
+        assertEquals(Map.of(2L, "Table is already reserved at the requested time."), errorsByLine(result));
+    }
+
+    @Test
+    void rejectsOverlapsWithExistingReservationsOnEveryDayOfAnUnsortedFile() {
+        LocalDate laterDay = day.plusDays(30);
+        reservationService.createReservation(guestRequest(table, day.atTime(12, 0), "existing-1"));
+        reservationService.createReservation(guestRequest(table, laterDay.atTime(12, 0), "existing-2"));
+
+        String csv = String.join("\n",
+                HEADER,
+                guestRow(table, laterDay.atTime(13, 0), "a"),
+                guestRow(table, day.plusDays(1).atTime(12, 0), "b"),
+                guestRow(table, day.atTime(14, 0), "c"),
+                guestRow(table, laterDay.atTime(15, 0), "d"),
+                guestRow(table, day.atTime(14, 30), "e"));
+
+        ReservationImportResultDto result = importCsv(csv);
+
+        assertEquals(2, result.getImported());
+        assertEquals(Map.of(
+                2L, "Table is already reserved at the requested time.",
+                4L, "Table is already reserved at the requested time.",
+                6L, "Table is already reserved at the requested time."), errorsByLine(result));
+    }
+
+    @Test
+    void rejectsAUserOrGuestBookedTwiceAtTheSameTime() {
+        ReservationCreateDto existing = new ReservationCreateDto();
+        existing.setTableId(table.getId().toString());
+        existing.setReservationTime(day.atTime(12, 0));
+        existing.setNumberOfGuests(2);
+        existing.setUserId(user.getId().toString());
+        reservationService.createReservation(existing);
+
+        String csv = String.join("\n",
+                HEADER,
+                otherTable.getId() + "," + day.atTime(12, 0) + ",2," + user.getId() + ",,,",
+                guestRow(table, day.atTime(16, 0), "twice"),
+                guestRow(otherTable, day.atTime(16, 0), "twice"));
+
+        ReservationImportResultDto result = importCsv(csv);
+
+        assertEquals(1, result.getImported());
+        assertEquals(Map.of(
+                2L, "User already has a reservation at the requested time.",
+                4L, "Guest with this email already has a reservation at the requested time."), errorsByLine(result));
+    }
+
+    private ReservationImportResultDto importCsv(String csv) {
+        return reservationImportService.importReservations(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Format.CSV);
+    }
+
+    private static String guestRow(TableEntity forTable, LocalDateTime time, String guest) {
+        return forTable.getId() + "," + time + ",2,,Guest " + guest + "," + guest + "@import.example.com,+381600000000";
+    }
+
+    private static ReservationCreateDto guestRequest(TableEntity forTable, LocalDateTime time, String guest) {
+        ReservationCreateDto request = new ReservationCreateDto();
+        request.setTableId(forTable.getId().toString());
+        request.setReservationTime(time);
+        request.setNumberOfGuests(2);
+        request.setGuestName("Guest " + guest);
+        request.setGuestEmail(guest + "@import.example.com");
+        request.setGuestPhone("+381600000000");
+        return request;
+    }
+
+    private static Map<Long, String> errorsByLine(ReservationImportResultDto result) {
+        return result.getErrors().stream()
+                .collect(Collectors.toMap(ReservationImportErrorDto::getRow, ReservationImportErrorDto::getMessage));
+    }
+
+    private TableEntity newTable() {
+        TableEntity newTable = new TableEntity();
+        newTable.setTableNumber(TABLE_NUMBERS.getAndIncrement());
+        newTable.setCapacity(4);
+        newTable.setIsAvailable(true);
+        return tableRepository.save(newTable);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.mitar.dipl.service.implementation;
+
+import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.dto.reservation.ReservationDto;
+import com.mitar.dipl.model.entity.Reservation;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reservation writes must not load the reservation collections of the table or the user, however many
+ * reservations those already have.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationWriteStatementCountTest {
+
+    private static final int EXISTING_RESERVATIONS = 20;
+    private static final AtomicInteger TABLE_NUMBERS = new AtomicInteger(300);
+    private static final AtomicInteger FIRST_DAYS = new AtomicInteger(1);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private TableEntity table;
+    private LocalDate firstDay;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.findAll().get(0);
+        table = newTable();
+        firstDay = LocalDate.now().plusDays(FIRST_DAYS.getAndAdd(EXISTING_RESERVATIONS + 1));
+        for (int i = 0; i < EXISTING_RESERVATIONS; i++) {
+            reservationService.createReservation(request(table, firstDay.plusDays(i).atTime(12, 0)));
+        }
+    }
+
+    @Test
+    void createLoadsNoReservationCollections() {
+        statistics.clear();
+
+        reservationService.createReservation(request(table, firstDay.plusDays(EXISTING_RESERVATIONS).atTime(12, 0)));
+
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(Reservation.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void moveToAnotherTableLoadsNoReservationCollections() {
+        ReservationDto reservation = reservationService.createReservation(
+                request(table, firstDay.plusDays(EXISTING_RESERVATIONS).atTime(12, 0)));
+        TableEntity otherTable = newTable();
+        statistics.clear();
+
+        reservationService.updateReservation(reservation.getId(), request(otherTable, firstDay.plusDays(EXISTING_RESERVATIONS).atTime(12, 0)));
+
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(1, statistics.getEntityStatistics(Reservation.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void deleteLoadsOnlyTheReservation() {
+        ReservationDto reservation = reservationService.createReservation(
+                request(table, firstDay.plusDays(EXISTING_RESERVATIONS).atTime(12, 0)));
+        statistics.clear();
+
+        reservationService.deleteReservation(reservation.getId());
+
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(1, statistics.getEntityStatistics(Reservation.class.getName()).getLoadCount());
+    }
+
+    private TableEntity newTable() {
+        TableEntity newTable = new TableEntity();
+        newTable.setTableNumber(TABLE_NUMBERS.getAndIncrement());
+        newTable.setCapacity(4);
+        newTable.setIsAvailable(true);
+        return tableRepository.save(newTable);
+    }
+
+    private ReservationCreateDto request(TableEntity forTable, LocalDateTime time) {
+        ReservationCreateDto request = new ReservationCreateDto();
+        request.setTableId(forTable.getId().toString());
+        request.setReservationTime(time);
+        request.setNumberOfGuests(2);
+        request.setUserId(user.getId().toString());
+        return request;
+    }
+
+}
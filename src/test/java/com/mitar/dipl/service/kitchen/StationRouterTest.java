@@ -0,0 +1,253 @@
+package com.mitar.dipl.service.kitchen;
+
+import com.mitar.dipl.exception.custom.BadRequestException;
+import com.mitar.dipl.model.dto.kitchen.KitchenTicketDto;
+import com.mitar.dipl.model.dto.kitchen.KitchenTicketStatus;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.model.entity.OrderEntity;
+import com.mitar.dipl.model.entity.OrderItem;
+import com.mitar.dipl.model.entity.enums.Station;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StationRouterTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 14, 12, 0);
+
+    private final MenuItem soup = menuItem("Soup", "Appetizer");
+    private final MenuItem steak = menuItem("Steak", "Main Course");
+    private final MenuItem wine = menuItem("Wine", "Wine");
+
+    // Orders are synced directly, so the router needs no repository
+    private final StationRouter router = new StationRouter(null, List.of("Wine"), List.of("Appetizer", "Main Course"));
+
+    @AfterEach
+    void stopRouter() {
+        router.stop();
+    }
+
+    @Test
+    void routesByCategoryAndQueuesByOrderAgeThenCourse() {
+        OrderEntity later = order(NOON.plusMinutes(5), item(steak, 1), item(soup, 1));
+        OrderEntity earlier = order(NOON, item(steak, 1), item(wine, 1));
+        router.sync(later);
+        router.sync(earlier);
+
+        List<KitchenTicketDto> kitchen = router.claim(Station.KITCHEN, 5, "cook");
+
+        assertEquals(List.of(ticketId(earlier, steak), ticketId(later, soup), ticketId(later, steak)), ids(kitchen));
+        assertEquals(List.of(ticketId(earlier, wine)), ids(router.claim(Station.BAR, 5, "bartender")));
+    }
+
+    @Test
+    void claimNeverReturnsATicketTwice() {
+        router.sync(order(NOON, item(soup, 1), item(steak, 1)));
+
+        List<KitchenTicketDto> first = router.claim(Station.KITCHEN, 1, "cook");
+        List<KitchenTicketDto> second = router.claim(Station.KITCHEN, 5, "cook");
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertTrue(Collections.disjoint(ids(first), ids(second)));
+        assertEquals(List.of(), router.claim(Station.KITCHEN, 5, "cook"));
+    }
+
+    @Test
+    void aClaimedTicketStaysClaimedWhenItsQuantityChanges() {
+        OrderItem item = item(steak, 1);
+        OrderEntity order = order(NOON, item);
+        router.sync(order);
+        router.claim(Station.KITCHEN, 1, "cook");
+
+        item.setQuantity(3);
+        router.sync(order);
+
+        KitchenTicketDto ticket = onlyTicket(Station.KITCHEN);
+        assertEquals(KitchenTicketStatus.CLAIMED, ticket.getStatus());
+        assertEquals("cook", ticket.getClaimedBy());
+        assertEquals(3, ticket.getQuantity());
+        assertEquals(List.of(), router.claim(Station.KITCHEN, 5, "other cook"));
+    }
+
+    @Test
+    void claimsRacingQuantityChangesAreKeptAndNeverDuplicated() throws Exception {
+        List<OrderItem> items = new ArrayList<>();
+        List<OrderEntity> orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            OrderItem item = item(menuItem("Dish " + i, "Main Course"), 1);
+            items.add(item);
+            orders.add(order(NOON.plusSeconds(i), item));
+        }
+        orders.forEach(router::sync);
+
+        Map<String, String> claims = new ConcurrentHashMap<>();
+        AtomicBoolean duplicate = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService cooks = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int c = 0; c < 4; c++) {
+                String cook = "cook " + c;
+                results.add(cooks.submit(() -> {
+                    start.await();
+                    List<KitchenTicketDto> claimed;
+                    while (!(claimed = router.claim(Station.KITCHEN, 3, cook)).isEmpty()) {
+                        claimed.forEach(ticket -> {
+                            if (claims.putIfAbsent(ticket.getId(), cook) != null) {
+                                duplicate.set(true);
+                            }
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            // Changes quantities while the cooks claim, the way order updates arrive from the router thread
+            for (int round = 2; round < 6; round++) {
+                for (int i = 0; i < items.size(); i++) {
+                    items.get(i).setQuantity(round);
+                    router.sync(orders.get(i));
+                }
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            cooks.shutdown();
+        }
+        // Tickets the cooks left behind before a late change are still waiting
+        List<KitchenTicketDto> leftover;
+        while (!(leftover = router.claim(Station.KITCHEN, 20, "closer")).isEmpty()) {
+            leftover.forEach(ticket -> {
+                if (claims.putIfAbsent(ticket.getId(), "closer") != null) {
+                    duplicate.set(true);
+                }
+            });
+        }
+
+        assertFalse(duplicate.get());
+        assertEquals(items.size(), claims.size());
+        for (KitchenTicketDto ticket : router.getTickets(Station.KITCHEN)) {
+            assertEquals(KitchenTicketStatus.CLAIMED, ticket.getStatus());
+            assertEquals(claims.get(ticket.getId()), ticket.getClaimedBy());
+            assertEquals(5, ticket.getQuantity());
+        }
+    }
+
+    @Test
+    void aCompletedTicketIsQueuedAgainWhenItsQuantityChanges() {
+        OrderItem item = item(soup, 1);
+        OrderEntity order = order(NOON, item);
+        router.sync(order);
+        KitchenTicketDto claimed = router.claim(Station.KITCHEN, 1, "cook").get(0);
+        router.complete(UUID.fromString(claimed.getId()));
+
+        router.sync(order);
+        assertEquals(List.of(), router.getTickets(Station.KITCHEN));
+
+        item.setQuantity(2);
+        router.sync(order);
+
+        List<KitchenTicketDto> again = router.claim(Station.KITCHEN, 5, "cook");
+        assertEquals(List.of(claimed.getId()), ids(again));
+        assertEquals(2, again.get(0).getQuantity());
+    }
+
+    @Test
+    void aRemovedItemDropsItsTicket() {
+        OrderItem kept = item(soup, 1);
+        OrderItem removed = item(steak, 1);
+        OrderEntity order = order(NOON, kept, removed);
+        router.sync(order);
+        router.claim(Station.KITCHEN, 1, "cook");
+
+        order.getOrderItems().remove(removed);
+        router.sync(order);
+
+        assertEquals(List.of(kept.getId().toString()), ids(router.getTickets(Station.KITCHEN)));
+    }
+
+    @Test
+    void aClosedOrderDropsAllItsTickets() {
+        OrderEntity closed = order(NOON, item(soup, 1), item(steak, 1), item(wine, 1));
+        OrderEntity open = order(NOON.plusMinutes(1), item(soup, 1));
+        router.sync(closed);
+        router.sync(open);
+        router.claim(Station.KITCHEN, 1, "cook");
+
+        router.removeOrder(closed.getId());
+
+        assertEquals(List.of(ticketId(open, soup)), ids(router.getTickets(Station.KITCHEN)));
+        assertEquals(List.of(), router.getTickets(Station.BAR));
+        assertEquals(List.of(ticketId(open, soup)), ids(router.claim(Station.KITCHEN, 5, "cook")));
+    }
+
+    @Test
+    void rejectsClaimCountsOutOfRange() {
+        assertThrows(BadRequestException.class, () -> router.claim(Station.KITCHEN, 0, "cook"));
+        assertThrows(BadRequestException.class, () -> router.claim(Station.KITCHEN, 21, "cook"));
+    }
+
+    private KitchenTicketDto onlyTicket(Station station) {
+        List<KitchenTicketDto> tickets = router.getTickets(station);
+        assertEquals(1, tickets.size());
+        return tickets.get(0);
+    }
+
+    private static OrderEntity order(LocalDateTime createdAt, OrderItem... items) {
+        OrderEntity order = new OrderEntity();
+        order.setId(UUID.randomUUID());
+        order.setCreatedAt(createdAt);
+        Set<OrderItem> orderItems = new HashSet<>();
+        for (OrderItem item : items) {
+            item.setOrderEntity(order);
+            orderItems.add(item);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+
+    private static OrderItem item(MenuItem menuItem, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setId(UUID.randomUUID());
+        item.setMenuItem(menuItem);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static MenuItem menuItem(String name, String category) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(UUID.randomUUID());
+        menuItem.setName(name);
+        menuItem.setCategory(category);
+        return menuItem;
+    }
+
+    private static String ticketId(OrderEntity order, MenuItem menuItem) {
+        return order.getOrderItems().stream()
+                .filter(item -> item.getMenuItem() == menuItem)
+                .findFirst()
+                .orElseThrow()
+                .getId()
+                .toString();
+    }
+
+    private static List<String> ids(List<KitchenTicketDto> tickets) {
+        return tickets.stream().map(KitchenTicketDto::getId).toList();
+    }
+
+}
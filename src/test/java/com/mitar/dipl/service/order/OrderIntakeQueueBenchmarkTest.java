@@ -0,0 +1,105 @@
+package com.mitar.dipl.service.order;
+
+import com.mitar.dipl.model.dto.order.OrderCreateDto;
+import com.mitar.dipl.model.entity.MenuItem;
+import com.mitar.dipl.model.entity.User;
+import com.mitar.dipl.repository.MenuItemRepository;
+import com.mitar.dipl.repository.OrderRepository;
+import com.mitar.dipl.repository.UserRepository;
+import com.mitar.dipl.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares order throughput of the synchronous {@code createOrder} path with the grouped intake queue, both
+ * answering only after the order is committed. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=OrderIntakeQueueBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class OrderIntakeQueueBenchmarkTest {
+
+    private static final int CLIENTS = 32;
+    private static final int ORDERS = 8_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIntakeQueue orderIntakeQueue;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void intakeQueueTakesMoreOrdersPerSecondThanTheSynchronousPath() throws Exception {
+        assertEquals(OrderIntakeQueue.Durability.COMMITTED, orderIntakeQueue.getDurability());
+        OrderCreateDto order = sampleOrder();
+
+        // Warm both paths before measuring
+        run(500, orderService::createOrder, order);
+        run(500, dto -> assertTrue(orderIntakeQueue.submit(dto).stored()), order);
+
+        long before = orderRepository.count();
+        double synchronous = run(ORDERS, orderService::createOrder, order);
+        double queued = run(ORDERS, dto -> assertTrue(orderIntakeQueue.submit(dto).stored()), order);
+        assertEquals(before + 2L * ORDERS, orderRepository.count());
+
+        log.info("Order intake: {} orders from {} clients: synchronous {} orders/s, intake queue {} orders/s ({})",
+                ORDERS, CLIENTS, Math.round(synchronous), Math.round(queued), orderIntakeQueue.getMetrics());
+    }
+
+    private OrderCreateDto sampleOrder() {
+        User user = userRepository.findAll().get(0);
+        HashMap<String, Integer> items = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findAll().subList(0, 3)) {
+            items.put(menuItem.getId().toString(), 2);
+        }
+        OrderCreateDto order = new OrderCreateDto();
+        order.setStatus("PENDING");
+        order.setUserId(user.getId().toString());
+        order.setMenuItemIdsAndQuantities(items);
+        return order;
+    }
+
+    private static double run(int orders, Consumer<OrderCreateDto> path, OrderCreateDto order) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> results = new ArrayList<>(orders);
+            for (int i = 0; i < orders; i++) {
+                results.add(clients.submit(() -> path.accept(order)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            return orders * 1e9 / (System.nanoTime() - started);
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.mitar.dipl.service.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderTimerWheelTest {
+
+    // Not on an hour or day boundary, so reminders have to cascade between levels mid-bucket
+    private static final Instant START = Instant.parse("2026-03-14T09:26:30Z");
+
+    private final ReminderTimerWheel wheel = new ReminderTimerWheel(START);
+
+    @Test
+    void firesOnTheScheduledMinuteOnEveryLevel() {
+        for (Duration ahead : List.of(Duration.ofMinutes(1), Duration.ofMinutes(59), Duration.ofMinutes(61),
+                Duration.ofHours(5).plusMinutes(7), Duration.ofHours(23).plusMinutes(59), Duration.ofDays(1).plusMinutes(1),
+                Duration.ofDays(9).plusHours(13).plusMinutes(2), ReminderTimerWheel.SPAN.minusMinutes(2))) {
+            UUID reservationId = UUID.randomUUID();
+            Instant fireAt = START.plus(ahead);
+            ReminderTimerWheel timerWheel = new ReminderTimerWheel(START);
+            assertTrue(timerWheel.schedule(reservationId, fireAt));
+
+            assertEquals(List.of(), timerWheel.advance(fireAt.minus(ReminderTimerWheel.TICK)), ahead.toString());
+            assertEquals(List.of(reservationId), timerWheel.advance(fireAt), ahead.toString());
+            assertEquals(0, timerWheel.size());
+        }
+    }
+
+    @Test
+    void firesInOrderWhenAdvancedTickByTick() {
+        UUID later = UUID.randomUUID();
+        UUID sooner = UUID.randomUUID();
+        wheel.schedule(later, START.plus(Duration.ofHours(2)));
+        wheel.schedule(sooner, START.plus(Duration.ofMinutes(90)));
+
+        Instant now = START;
+        List<UUID> fired = new ArrayList<>();
+        for (int minute = 0; minute < 180; minute++) {
+            now = now.plus(ReminderTimerWheel.TICK);
+            fired.addAll(wheel.advance(now));
+        }
+
+        assertEquals(List.of(sooner, later), fired);
+    }
+
+    @Test
+    void pastRemindersAreDueOnTheNextAdvance() {
+        UUID reservationId = UUID.randomUUID();
+
+        assertTrue(wheel.schedule(reservationId, START.minus(Duration.ofHours(1))));
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(reservationId), wheel.advance(START));
+    }
+
+    @Test
+    void rejectsRemindersBeyondTheSpan() {
+        assertFalse(wheel.schedule(UUID.randomUUID(), START.plus(ReminderTimerWheel.SPAN).plus(ReminderTimerWheel.TICK)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledRemindersNeverFire() {
+        UUID cancelled = UUID.randomUUID();
+        UUID cancelledWhileDue = UUID.randomUUID();
+        wheel.schedule(cancelled, START.plus(Duration.ofDays(3)));
+        wheel.schedule(cancelledWhileDue, START.minus(ReminderTimerWheel.TICK));
+
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelledWhileDue);
+
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(START.plus(Duration.ofDays(4))));
+    }
+
+    @Test
+    void reschedulingMovesTheReminder() {
+        UUID reservationId = UUID.randomUUID();
+        wheel.schedule(reservationId, START.plus(Duration.ofHours(3)));
+
+        wheel.schedule(reservationId, START.plus(Duration.ofMinutes(10)));
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(reservationId), wheel.advance(START.plus(Duration.ofMinutes(10))));
+        assertEquals(List.of(), wheel.advance(START.plus(Duration.ofHours(4))));
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.ReservationRepository;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares conflict checks answered by {@link ReservationIntervalIndex} with the existence query they replace,
+ * over 100k reservations. Run with {@code mvn test -Dbenchmarks=true -Dtest=ReservationIntervalIndexBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ReservationIntervalIndexBenchmarkTest {
+
+    private static final int RESERVATIONS = 100_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int[] START_HOURS = {10, 13, 16, 19};
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexAnswersConflictChecksFasterThanTheQuery() {
+        List<UUID> tableIds = tableRepository.findAll().stream().map(TableEntity::getId).toList();
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        int days = insertReservations(tableIds, firstDay);
+
+        ReservationIntervalIndex index = new ReservationIntervalIndex(reservationRepository, true, true);
+        index.warmUp();
+
+        Random random = new Random(42);
+        List<UUID> tables = new ArrayList<>(LOOKUPS);
+        List<LocalDateTime> starts = new ArrayList<>(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            tables.add(tableIds.get(random.nextInt(tableIds.size())));
+            starts.add(firstDay.plusDays(random.nextInt(days)).atTime(10 + random.nextInt(12), 0));
+        }
+
+        // Warm both paths before measuring
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(viaQuery(tables.get(i), starts.get(i)), index.hasConflict(tables.get(i), starts.get(i), null));
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            viaQuery(tables.get(i), starts.get(i));
+        }
+        long queryNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.hasConflict(tables.get(i), starts.get(i), null);
+        }
+        long indexNanos = System.nanoTime() - started;
+
+        log.info("Interval index: {} reservations indexed, {} checks: query {} checks/s, index {} checks/s",
+                index.size(), LOOKUPS, Math.round(LOOKUPS * 1e9 / queryNanos), Math.round(LOOKUPS * 1e9 / indexNanos));
+    }
+
+    private boolean viaQuery(UUID tableId, LocalDateTime start) {
+        return reservationRepository.existsByTable_IdAndReservationTimeBetween(tableId,
+                ReservationSchedule.conflictWindowStart(start), ReservationSchedule.conflictWindowEnd(start));
+    }
+
+    private int insertReservations(List<UUID> tableIds, LocalDate firstDay) {
+        int perDay = tableIds.size() * START_HOURS.length;
+        int days = (RESERVATIONS + perDay - 1) / perDay;
+        List<Object[]> rows = new ArrayList<>(RESERVATIONS);
+        for (int day = 0; day < days && rows.size() < RESERVATIONS; day++) {
+            for (UUID tableId : tableIds) {
+                for (int hour : START_HOURS) {
+                    rows.add(new Object[]{
+                            UUIDUtils.toBytes(UUID.randomUUID()),
+                            Timestamp.valueOf(firstDay.plusDays(day).atTime(hour, 0)),
+                            2,
+                            UUIDUtils.toBytes(tableId)
+                    });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO reservations (id, reservation_time, number_of_guests, table_id, deleted) VALUES (?, ?, ?, ?, false)",
+                rows);
+        return days;
+    }
+
+}
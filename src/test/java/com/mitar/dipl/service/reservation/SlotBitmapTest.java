@@ -0,0 +1,86 @@
+package com.mitar.dipl.service.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static com.mitar.dipl.service.reservation.ReservationSchedule.CLOSING_TIME;
+import static com.mitar.dipl.service.reservation.ReservationSchedule.CONFLICT_WINDOW;
+import static com.mitar.dipl.service.reservation.ReservationSchedule.OPENING_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTest {
+
+    private static final LocalTime LAST_START = CLOSING_TIME.minus(CONFLICT_WINDOW);
+
+    @Test
+    void coversTheBusinessDayInFifteenMinuteSlots() {
+        assertEquals(48, SlotBitmap.SLOTS_PER_DAY);
+        assertEquals(0, SlotBitmap.slotOf(OPENING_TIME));
+        assertEquals(OPENING_TIME, SlotBitmap.timeOf(0));
+        assertEquals(CLOSING_TIME.minus(SlotBitmap.SLOT_DURATION), SlotBitmap.timeOf(SlotBitmap.SLOTS_PER_DAY - 1));
+        assertEquals(-1, SlotBitmap.slotOf(CLOSING_TIME));
+        assertEquals(-1, SlotBitmap.slotOf(OPENING_TIME.minusMinutes(15)));
+        assertEquals(-1, SlotBitmap.slotOf(OPENING_TIME.plusMinutes(10)));
+    }
+
+    @Test
+    void bookableStartsRunFromOpeningToTheLastStartThatEndsByClosing() {
+        int last = SlotBitmap.slotOf(LAST_START);
+
+        assertEquals(LocalTime.of(19, 30), LAST_START);
+        assertTrue(isSet(SlotBitmap.BOOKABLE_STARTS, 0));
+        assertTrue(isSet(SlotBitmap.BOOKABLE_STARTS, last));
+        assertFalse(isSet(SlotBitmap.BOOKABLE_STARTS, last + 1));
+        assertEquals(last + 1, Long.bitCount(SlotBitmap.BOOKABLE_STARTS));
+    }
+
+    @Test
+    void aReservationBlocksStartsUpToExactlyTheConflictWindowAway() {
+        LocalTime start = LocalTime.of(15, 0);
+
+        long blocked = SlotBitmap.blockedBy(start);
+
+        assertEquals(List.of(start.minus(CONFLICT_WINDOW), start.plus(CONFLICT_WINDOW)), edges(blocked));
+        assertEquals(2 * CONFLICT_WINDOW.toMinutes() / 15 + 1, Long.bitCount(blocked));
+        assertFalse(isSet(blocked, SlotBitmap.slotOf(start.minus(CONFLICT_WINDOW).minusMinutes(15))));
+        assertFalse(isSet(blocked, SlotBitmap.slotOf(start.plus(CONFLICT_WINDOW).plusMinutes(15))));
+    }
+
+    @Test
+    void blockedStartsAreClampedToTheDay() {
+        assertEquals(List.of(OPENING_TIME, OPENING_TIME.plus(CONFLICT_WINDOW)), edges(SlotBitmap.blockedBy(OPENING_TIME)));
+        assertEquals(List.of(LAST_START.minus(CONFLICT_WINDOW), CLOSING_TIME.minus(SlotBitmap.SLOT_DURATION)),
+                edges(SlotBitmap.blockedBy(LAST_START)));
+    }
+
+    @Test
+    void aStartBetweenSlotsBlocksOnlyWholeSlotsInsideTheWindow() {
+        long blocked = SlotBitmap.blockedBy(LocalTime.of(15, 10));
+
+        // 12:40 to 17:40, so 12:45 is the first blocked start and 17:30 the last
+        assertEquals(List.of(LocalTime.of(12, 45), LocalTime.of(17, 30)), edges(blocked));
+    }
+
+    @Test
+    void expandsABitmapIntoItsStartTimes() {
+        long bitmap = (1L << 0) | (1L << 4) | (1L << (SlotBitmap.SLOTS_PER_DAY - 1));
+
+        assertEquals(List.of(OPENING_TIME, OPENING_TIME.plusHours(1), CLOSING_TIME.minusMinutes(15)),
+                SlotBitmap.toTimes(bitmap));
+        assertEquals(List.of(), SlotBitmap.toTimes(0L));
+    }
+
+    private static boolean isSet(long bitmap, int slot) {
+        return (bitmap & (1L << slot)) != 0;
+    }
+
+    private static List<LocalTime> edges(long bitmap) {
+        List<LocalTime> times = SlotBitmap.toTimes(bitmap);
+        return List.of(times.get(0), times.get(times.size() - 1));
+    }
+
+}
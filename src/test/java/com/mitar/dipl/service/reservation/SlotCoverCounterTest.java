@@ -0,0 +1,133 @@
+package com.mitar.dipl.service.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotCoverCounterTest {
+
+    private static final int MAX_COVERS = 10;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+    private static final LocalDateTime SEVEN_PM = DAY.atTime(19, 0);
+    private static final long SEVEN_PM_SLOT = 1L << SlotBitmap.slotContaining(SEVEN_PM.toLocalTime());
+
+    // Warm-up is not exercised here, so the counter needs no repository
+    private final SlotCoverCounter counter = new SlotCoverCounter(null, MAX_COVERS);
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void takesCoversUpToTheCap() {
+        assertTrue(counter.tryReserve(SEVEN_PM, 6));
+        assertTrue(counter.tryReserve(SEVEN_PM.plusMinutes(10), 4));
+
+        assertFalse(counter.tryReserve(SEVEN_PM.plusMinutes(14), 1));
+        assertTrue(counter.tryReserve(SEVEN_PM.plusMinutes(15), MAX_COVERS));
+        assertTrue(counter.tryReserve(SEVEN_PM.plusDays(1), MAX_COVERS));
+    }
+
+    @Test
+    void reportsTheSlotsThatStillHaveRoom() {
+        counter.tryReserve(SEVEN_PM, 7);
+
+        assertEquals(SEVEN_PM_SLOT, counter.slotsWithRoom(DAY, 3) & SEVEN_PM_SLOT);
+        assertEquals(0L, counter.slotsWithRoom(DAY, 4) & SEVEN_PM_SLOT);
+        assertEquals(SlotBitmap.SLOTS_PER_DAY - 1, Long.bitCount(counter.slotsWithRoom(DAY, 4)));
+        assertEquals(SlotBitmap.SLOTS_PER_DAY, Long.bitCount(counter.slotsWithRoom(DAY.plusDays(1), MAX_COVERS)));
+    }
+
+    @Test
+    void reportsTheCoversLeftInASlot() {
+        int slot = SlotBitmap.slotContaining(SEVEN_PM.toLocalTime());
+        counter.tryReserve(SEVEN_PM, 7);
+
+        assertEquals(3, counter.coversLeft(DAY, slot));
+        assertEquals(MAX_COVERS, counter.coversLeft(DAY, slot + 1));
+        assertEquals(MAX_COVERS, counter.coversLeft(DAY.plusDays(1), slot));
+        assertEquals(Integer.MAX_VALUE, new SlotCoverCounter(null, 0).coversLeft(DAY, slot));
+    }
+
+    @Test
+    void aZeroLimitTurnsTheCapOff() {
+        SlotCoverCounter unlimited = new SlotCoverCounter(null, 0);
+
+        assertFalse(unlimited.isLimited());
+        assertTrue(unlimited.tryReserve(SEVEN_PM, 1_000));
+        assertEquals(-1L, unlimited.slotsWithRoom(DAY, 1_000));
+    }
+
+    @Test
+    void ignoresTimesOutsideBusinessHours() {
+        assertTrue(counter.tryReserve(DAY.atTime(23, 0), MAX_COVERS + 1));
+        counter.releaseAfterCommit(DAY.atTime(23, 0), MAX_COVERS + 1);
+
+        assertEquals(SlotBitmap.SLOTS_PER_DAY, Long.bitCount(counter.slotsWithRoom(DAY, MAX_COVERS)));
+    }
+
+    @Test
+    void returnsCoversTakenByARolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+        assertFalse(counter.tryReserve(SEVEN_PM, 1));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+    }
+
+    @Test
+    void keepsCoversTakenByACommittedTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(counter.tryReserve(SEVEN_PM, 1));
+    }
+
+    @Test
+    void releasedCoversComeBackOnlyAfterCommit() {
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.releaseAfterCommit(SEVEN_PM, 4);
+        assertFalse(counter.tryReserve(SEVEN_PM, 1));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertTrue(counter.tryReserve(SEVEN_PM, 4));
+        assertFalse(counter.tryReserve(SEVEN_PM, 1));
+    }
+
+    @Test
+    void releaseOutsideATransactionIsImmediate() {
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+
+        counter.releaseAfterCommit(SEVEN_PM, MAX_COVERS);
+
+        assertTrue(counter.tryReserve(SEVEN_PM, MAX_COVERS));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+}
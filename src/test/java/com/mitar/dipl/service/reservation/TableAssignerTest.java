@@ -0,0 +1,98 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.model.entity.TableEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableAssignerTest {
+
+    private final TableAssigner assigner = new TableAssigner(3, Duration.ofSeconds(1));
+
+    @Test
+    void prefersTheSmallestSingleTableThatSeatsTheParty() {
+        List<TableEntity> free = List.of(table(1, 8), table(2, 4), table(3, 6), table(4, 4));
+
+        assertEquals(List.of(2), numbers(assigner.assign(free, 3)));
+        assertEquals(List.of(3), numbers(assigner.assign(free, 5)));
+    }
+
+    @Test
+    void combinesTablesOnlyWhenNoSingleTableFits() {
+        List<TableEntity> free = List.of(table(1, 2), table(2, 4), table(3, 4), table(5, 4));
+
+        assertEquals(List.of(2, 3), numbers(assigner.assign(free, 7)));
+    }
+
+    @Test
+    void combinesTablesWhoseNumbersAreNotConsecutive() {
+        List<TableEntity> free = List.of(table(1, 4), table(3, 4), table(5, 4));
+
+        assertEquals(List.of(1, 3), numbers(assigner.assign(free, 6)));
+    }
+
+    @Test
+    void picksTheCombinationWithTheFewestEmptySeats() {
+        List<TableEntity> free = List.of(table(1, 6), table(2, 6), table(10, 4), table(11, 4), table(12, 2));
+
+        assertEquals(List.of(1, 10), numbers(assigner.assign(free, 10)));
+        assertEquals(List.of(1, 2, 10), numbers(assigner.assign(free, 15)));
+    }
+
+    @Test
+    void prefersFewerTablesAtEqualWasteThenTheLowestNumber() {
+        List<TableEntity> free = List.of(table(1, 2), table(2, 2), table(3, 4), table(7, 4), table(8, 4));
+
+        assertEquals(List.of(3, 7), numbers(assigner.assign(free, 8)));
+        assertEquals(List.of(1, 3), numbers(assigner.assign(free, 6)));
+    }
+
+    @Test
+    void respectsTheCombinedTableLimit() {
+        List<TableEntity> free = List.of(table(1, 2), table(2, 2), table(3, 2), table(4, 2));
+
+        assertEquals(List.of(1, 2, 3), numbers(assigner.assign(free, 6)));
+        assertTrue(assigner.assign(free, 7).isEmpty());
+        assertTrue(new TableAssigner(1, Duration.ofSeconds(1)).assign(free, 3).isEmpty());
+    }
+
+    @Test
+    void decidesWithinTheTimeBudgetAmongManyTables() {
+        List<TableEntity> free = new ArrayList<>();
+        for (int number = 1; number <= 200; number++) {
+            free.add(table(number, 2 + 2 * (number % 4)));
+        }
+        TableAssigner budgeted = new TableAssigner(3, Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        List<TableEntity> chosen = budgeted.assign(free, 21);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(50)) < 0);
+        assertEquals(List.of(2, 3, 7), numbers(chosen));
+    }
+
+    @Test
+    void returnsNothingWithoutFreeTables() {
+        assertTrue(assigner.assign(List.of(), 2).isEmpty());
+    }
+
+    private static TableEntity table(int number, int capacity) {
+        TableEntity table = new TableEntity();
+        table.setTableNumber(number);
+        table.setCapacity(capacity);
+        table.setIsAvailable(true);
+        return table;
+    }
+
+    private static List<Integer> numbers(List<TableEntity> tables) {
+        List<Integer> numbers = new ArrayList<>();
+        tables.forEach(table -> numbers.add(table.getTableNumber()));
+        return numbers;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.mitar.dipl.service.reservation;
+
+import com.mitar.dipl.exception.custom.ConflictException;
+import com.mitar.dipl.model.dto.reservation.ReservationCreateDto;
+import com.mitar.dipl.model.entity.TableEntity;
+import com.mitar.dipl.repository.TableRepository;
+import com.mitar.dipl.service.ReservationService;
+import com.mitar.dipl.utils.UUIDUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Books a few tables from many threads at once and checks that no two reservations on a table overlap.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class TableBookingLockStressTest {
+
+    private static final int TABLES = 4;
+    private static final int DAYS = 30;
+    private static final int CLIENTS = 32;
+    private static final int ATTEMPTS = 4_000;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelBookingsNeverOverlap() throws Exception {
+        List<UUID> tableIds = new ArrayList<>();
+        for (int i = 0; i < TABLES; i++) {
+            TableEntity table = new TableEntity();
+            table.setTableNumber(900 + i);
+            table.setCapacity(4);
+            table.setIsAvailable(true);
+            tableIds.add(tableRepository.save(table).getId());
+        }
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        Random random = new Random(7);
+        List<ReservationCreateDto> requests = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            ReservationCreateDto request = new ReservationCreateDto();
+            request.setTableId(tableIds.get(random.nextInt(TABLES)).toString());
+            // Starts from 10:00 to 19:30 in 5 minute steps, so every request is within business hours
+            request.setReservationTime(firstDay.plusDays(random.nextInt(DAYS)).atTime(10, 0).plusMinutes(5L * random.nextInt(115)));
+            request.setNumberOfGuests(2);
+            request.setGuestName("Stress Guest " + i);
+            request.setGuestEmail("stress-" + i + "@example.com");
+            requests.add(request);
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> results = new ArrayList<>(ATTEMPTS);
+            for (ReservationCreateDto request : requests) {
+                results.add(clients.submit(() -> {
+                    try {
+                        reservationService.createReservation(request);
+                        booked.incrementAndGet();
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(ATTEMPTS, booked.get() + rejected.get());
+        assertTrue(booked.get() > 0);
+        assertEquals(List.of(), findOverlaps(tableIds, firstDay));
+
+        log.info("Booking stress: {} attempts on {} tables from {} clients, {} booked, {} rejected, {} attempts/s, "
+                + "{} bookings/s", ATTEMPTS, TABLES, CLIENTS, booked.get(), rejected.get(),
+                Math.round(ATTEMPTS / seconds), Math.round(booked.get() / seconds));
+    }
+
+    private List<String> findOverlaps(List<UUID> tableIds, LocalDate from) {
+        List<String> overlaps = new ArrayList<>();
+        for (UUID tableId : tableIds) {
+            List<LocalDateTime> starts = jdbcTemplate.queryForList(
+                    "SELECT reservation_time FROM reservations WHERE table_id = ? AND deleted = false AND reservation_time >= ? " +
+                    "ORDER BY reservation_time", LocalDateTime.class, UUIDUtils.toBytes(tableId), from.atStartOfDay());
+            for (int i = 1; i < starts.size(); i++) {
+                if (Duration.between(starts.get(i - 1), starts.get(i)).compareTo(ReservationSchedule.CONFLICT_WINDOW) <= 0) {
+                    overlaps.add(tableId + ": " + starts.get(i - 1) + " and " + starts.get(i));
+                }
+            }
+        }
+        return overlaps;
+    }
+
+}
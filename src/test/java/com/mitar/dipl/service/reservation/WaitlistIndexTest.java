@@ -0,0 +1,103 @@
+package com.mitar.dipl.service.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WaitlistIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+    private static final LocalDateTime SEVEN_PM = DAY.atTime(19, 0);
+    private static final int SLOT = SlotBitmap.slotContaining(SEVEN_PM.toLocalTime());
+
+    // Warm-up is not exercised here, so the index needs no repository
+    private final WaitlistIndex index = new WaitlistIndex(null);
+
+    @Test
+    void offersTheLargestPartyThatFits() {
+        UUID two = add(SEVEN_PM, 2);
+        UUID four = add(SEVEN_PM, 4);
+        UUID six = add(SEVEN_PM, 6);
+
+        assertEquals(Optional.of(four), index.pollBest(DAY, SLOT, 5));
+        assertEquals(Optional.of(two), index.pollBest(DAY, SLOT, 5));
+        assertEquals(Optional.empty(), index.pollBest(DAY, SLOT, 5));
+        assertEquals(Optional.of(six), index.pollBest(DAY, SLOT, 8));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void servesPartiesOfTheSameSizeInArrivalOrder() {
+        UUID first = add(SEVEN_PM, 4);
+        UUID second = add(SEVEN_PM.plusMinutes(5), 4);
+
+        assertEquals(Optional.of(first), index.pollBest(DAY, SLOT, 4));
+        assertEquals(Optional.of(second), index.pollBest(DAY, SLOT, 4));
+    }
+
+    @Test
+    void aPartyPutBackGoesToTheFrontOfItsQueue() {
+        UUID first = add(SEVEN_PM, 4);
+        UUID second = add(SEVEN_PM, 4);
+
+        assertEquals(Optional.of(first), index.pollBest(DAY, SLOT, 4));
+        index.addFirst(first, SEVEN_PM, 4);
+
+        assertEquals(Optional.of(first), index.pollBest(DAY, SLOT, 4));
+        assertEquals(Optional.of(second), index.pollBest(DAY, SLOT, 4));
+    }
+
+    @Test
+    void onlyOffersPartiesOfTheSameDayAndSlot() {
+        add(SEVEN_PM.plusMinutes(15), 2);
+        add(SEVEN_PM.plusDays(1), 2);
+
+        assertEquals(Optional.empty(), index.pollBest(DAY, SLOT, 4));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void ignoresDuplicatesAndTimesOutsideBusinessHours() {
+        UUID entryId = add(SEVEN_PM, 2);
+        index.add(entryId, SEVEN_PM, 2);
+        index.add(UUID.randomUUID(), DAY.atTime(23, 0), 2);
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removedPartiesAreNeverOffered() {
+        UUID removed = add(SEVEN_PM, 4);
+        UUID kept = add(SEVEN_PM, 2);
+
+        index.remove(removed);
+        index.remove(UUID.randomUUID());
+
+        assertEquals(Optional.of(kept), index.pollBest(DAY, SLOT, 4));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void evictsPartiesWhoseTimeHasPassed() {
+        add(DAY.atTime(12, 0), 2);
+        UUID kept = add(SEVEN_PM, 2);
+
+        index.evictBefore(DAY.atTime(18, 0));
+
+        assertEquals(1, index.size());
+        assertEquals(Optional.empty(), index.pollBest(DAY, SlotBitmap.slotContaining(DAY.atTime(12, 0).toLocalTime()), 2));
+        assertEquals(Optional.of(kept), index.pollBest(DAY, SLOT, 2));
+    }
+
+    private UUID add(LocalDateTime requestedTime, int numberOfGuests) {
+        UUID entryId = UUID.randomUUID();
+        index.add(entryId, requestedTime, numberOfGuests);
+        return entryId;
+    }
+
+}